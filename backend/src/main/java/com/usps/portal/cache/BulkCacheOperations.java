@@ -0,0 +1,85 @@
+package com.usps.portal.cache;
+
+import com.usps.portal.config.RedisConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class BulkCacheOperations {
+
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    // Near-cache hits first, then a single MGET for everything else; absent keys are omitted
+    public <T> Map<String, T> getAll(String cacheName, Collection<String> keys, Class<T> type) {
+        Map<String, T> found = new HashMap<>();
+        LayeredCache layered = cacheManager.getCache(cacheName) instanceof LayeredCache cache ? cache : null;
+
+        List<String> remoteKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Object value = layered != null ? layered.getLocal(key) : null;
+            if (type.isInstance(value)) {
+                found.put(key, type.cast(value));
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+
+        String prefix = CacheKeyPrefix.simple().compute(cacheName);
+        List<Object> values = redisTemplate.opsForValue()
+            .multiGet(remoteKeys.stream().map(key -> prefix + key).toList());
+        int hits = 0;
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            Object value = values != null ? values.get(i) : null;
+            if (type.isInstance(value)) {
+                found.put(remoteKeys.get(i), type.cast(value));
+                if (layered != null) {
+                    layered.putLocal(remoteKeys.get(i), value);
+                }
+                hits++;
+            }
+        }
+        if (layered != null) {
+            layered.recordRemoteLookups(hits, remoteKeys.size() - hits);
+        }
+        return found;
+    }
+
+    // Freshly loaded values only: no other node can hold a newer copy, so no invalidation is published
+    public void putAll(String cacheName, Map<String, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        String prefix = CacheKeyPrefix.simple().compute(cacheName);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                entries.forEach((key, value) ->
+                    operations.opsForValue().set(prefix + key, value, RedisConfig.CACHE_TTL));
+                return null;
+            }
+        });
+
+        if (cacheManager.getCache(cacheName) instanceof LayeredCache layered) {
+            entries.forEach(layered::putLocal);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.usps.portal.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final LayeredCacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationMessage invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+            if (nodeId.equals(invalidation.origin())) {
+                return;
+            }
+            cacheManager.evictLocal(invalidation.cacheName(), invalidation.key());
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation message", e);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.usps.portal.cache;
+
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+}
@@ -0,0 +1,183 @@
+package com.usps.portal.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Writes the configured format and reads any of them: every encoding is recognisable from its first
+// bytes, so switching formats or compression never strands entries already in Redis
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    public enum Format {
+        JSON, SMILE, CBOR
+    }
+
+    private static final byte[] LZ4_MAGIC = {'L', 'Z', '4'};
+    private static final int LZ4_HEADER_BYTES = LZ4_MAGIC.length + Integer.BYTES;
+
+    private final Format format;
+    private final int compressionThreshold;
+    private final ObjectMapper json;
+    private final ObjectMapper smile;
+    private final ObjectMapper cbor;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    // compressionThreshold < 0 disables compression
+    public CacheValueSerializer(Format format, int compressionThreshold) {
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+        this.json = typedMapper(JsonMapper.builder().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        this.smile = typedMapper(SmileMapper.builder());
+        this.cbor = typedMapper(CBORMapper.builder(
+            CBORFactory.builder().enable(CBORGenerator.Feature.WRITE_TYPE_HEADER).build()));
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        ObjectMapper mapper = switch (format) {
+            case JSON -> json;
+            case SMILE -> smile;
+            case CBOR -> cbor;
+        };
+        byte[] bytes;
+        try {
+            bytes = mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + format + " cache value", e);
+        }
+        if (compressionThreshold < 0 || bytes.length < compressionThreshold) {
+            return bytes;
+        }
+        return compress(bytes);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (startsWith(bytes, LZ4_MAGIC)) {
+            bytes = decompress(bytes);
+        }
+        try {
+            return readerFor(bytes).readValue(bytes, Object.class);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+
+    private ObjectMapper readerFor(byte[] bytes) {
+        // Smile: ":)\n" header; CBOR: self-describe tag 0xD9D9F7; anything else is the original JSON
+        if (bytes.length >= 3 && bytes[0] == ':' && bytes[1] == ')' && bytes[2] == '\n') {
+            return smile;
+        }
+        if (bytes.length >= 3 && bytes[0] == (byte) 0xD9 && bytes[1] == (byte) 0xD9 && bytes[2] == (byte) 0xF7) {
+            return cbor;
+        }
+        return json;
+    }
+
+    private byte[] compress(byte[] bytes) {
+        int maxLength = compressor.maxCompressedLength(bytes.length);
+        byte[] out = new byte[LZ4_HEADER_BYTES + maxLength];
+        System.arraycopy(LZ4_MAGIC, 0, out, 0, LZ4_MAGIC.length);
+        ByteBuffer.wrap(out, LZ4_MAGIC.length, Integer.BYTES).putInt(bytes.length);
+        int compressedLength = compressor.compress(bytes, 0, bytes.length, out, LZ4_HEADER_BYTES, maxLength);
+        if (LZ4_HEADER_BYTES + compressedLength >= bytes.length) {
+            return bytes;
+        }
+        return Arrays.copyOf(out, LZ4_HEADER_BYTES + compressedLength);
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        int length = ByteBuffer.wrap(bytes, LZ4_MAGIC.length, Integer.BYTES).getInt();
+        byte[] out = new byte[length];
+        decompressor.decompress(bytes, LZ4_HEADER_BYTES, out, 0, length);
+        return out;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same "@class" typing rules as GenericJackson2JsonRedisSerializer's default mapper, on any Jackson format,
+    // so JSON entries written before this serializer existed still read back.
+    // Binary formats keep java.time values as numeric arrays, which are smaller than ISO strings.
+    // Getter-only collections (User.getAuthorities) are skipped on read instead of failing typed deserialization.
+    private static ObjectMapper typedMapper(MapperBuilder<?, ?> builder) {
+        ObjectMapper mapper = builder
+            .addModule(new JavaTimeModule())
+            .disable(MapperFeature.USE_GETTERS_AS_SETTERS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .setDefaultTyping(new CacheTypeResolverBuilder()
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY))
+            .build();
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        return mapper;
+    }
+
+    private static class CacheTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        CacheTypeResolverBuilder() {
+            super(ObjectMapper.DefaultTyping.EVERYTHING,
+                BasicPolymorphicTypeValidator.builder().allowIfBaseType(Object.class).build());
+        }
+
+        @Override
+        public boolean useForType(JavaType type) {
+            if (type.isJavaLangObject()) {
+                return true;
+            }
+            while (type.isArrayType()) {
+                type = type.getContentType();
+            }
+            while (type.isReferenceType()) {
+                type = type.getReferencedType();
+            }
+            Class<?> raw = type.getRawClass();
+            if (type.isEnumType() || ClassUtils.isPrimitiveOrWrapper(raw)) {
+                return false;
+            }
+            if (type.isFinal() && raw.getPackageName().startsWith("java")) {
+                return false;
+            }
+            return !TreeNode.class.isAssignableFrom(raw);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.usps.portal.config;
+
+import com.usps.portal.cache.CacheValueSerializer;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache-serialization")
+public class CacheSerializationProperties {
+
+    private CacheValueSerializer.Format format = CacheValueSerializer.Format.SMILE;
+
+    private boolean compressionEnabled = true;
+
+    private DataSize compressionThreshold = DataSize.ofKilobytes(1);
+}
@@ -0,0 +1,27 @@
+package com.usps.portal.config;
+
+import com.usps.portal.metrics.StatementCounter;
+import io.lettuce.core.metrics.MicrometerOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Lettuce times every Redis command. Its default client-side percentiles cost a sliding window per command and
+    // cannot be aggregated across nodes, so only the SLO buckets from management.metrics.distribution are published.
+    @Bean
+    public MicrometerOptions lettuceMicrometerOptions() {
+        return MicrometerOptions.builder()
+            .histogram(false)
+            .targetPercentiles(new double[0])
+            .build();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+}
@@ -0,0 +1,44 @@
+package com.usps.portal.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "near-cache")
+public class NearCacheProperties {
+
+    private boolean enabled = true;
+
+    private String invalidationChannel = "cache:invalidation";
+
+    private Spec defaults = new Spec(1000L, Duration.ofSeconds(30));
+
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Spec specFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        if (spec == null) {
+            return defaults;
+        }
+        Spec merged = new Spec();
+        merged.setMaximumSize(spec.getMaximumSize() != null ? spec.getMaximumSize() : defaults.getMaximumSize());
+        merged.setTtl(spec.getTtl() != null ? spec.getTtl() : defaults.getTtl());
+        return merged;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Spec {
+        private Long maximumSize;
+        private Duration ttl;
+    }
+}
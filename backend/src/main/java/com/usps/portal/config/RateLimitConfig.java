@@ -1,42 +1,288 @@
 package com.usps.portal.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.usps.portal.model.User;
+import com.usps.portal.security.AuthenticatedUser;
+import com.usps.portal.security.JwtService;
+import com.usps.portal.security.VerifiedToken;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.jsonwebtoken.JwtException;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.stereotype.Component;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.util.AntPathMatcher;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
 
 @Configuration
 public class RateLimitConfig {
 
-    @Bean
-    public Map<String, Bucket> cache() {
-        return new ConcurrentHashMap<>();
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "rate-limit.distributed", havingValue = "true", matchIfMissing = true)
+    public StatefulRedisConnection<String, byte[]> rateLimitRedisConnection(RedisConnectionFactory connectionFactory) {
+        if (!(connectionFactory instanceof LettuceConnectionFactory lettuceConnectionFactory)
+                || !(lettuceConnectionFactory.getRequiredNativeClient() instanceof RedisClient redisClient)) {
+            throw new IllegalStateException("Distributed rate limiting requires a standalone Lettuce connection");
+        }
+        return redisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
     }
 
     @Bean
-    public RateLimitService rateLimitService() {
-        return new RateLimitService();
+    public RateLimitService rateLimitService(
+            ObjectProvider<StatefulRedisConnection<String, byte[]>> rateLimitRedisConnection,
+            RateLimitProperties properties,
+            JwtService jwtService,
+            MeterRegistry meterRegistry) {
+        ProxyManager<String> proxyManager = null;
+        StatefulRedisConnection<String, byte[]> connection = rateLimitRedisConnection.getIfAvailable();
+        if (connection != null) {
+            proxyManager = LettuceBasedProxyManager.builderFor(connection)
+                .withExpirationStrategy(ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofSeconds(10)))
+                .build();
+        }
+
+        Cache<String, Bucket> buckets = localBucketCache(properties);
+
+        RateLimitPolicy defaultPolicy = new RateLimitPolicy("default", "/**",
+            bucketConfiguration(properties.getCapacity(), properties.getRefillPeriod()));
+        List<RateLimitPolicy> policies = new ArrayList<>();
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            policies.add(new RateLimitPolicy(policy.getName(), policy.getPattern(),
+                bucketConfiguration(policy.getCapacity(), policy.getRefillPeriod())));
+        }
+
+        List<IpAddressMatcher> trustedProxies = new ArrayList<>();
+        if (properties.isTrustForwardedFor()) {
+            for (String proxy : properties.getTrustedProxies()) {
+                trustedProxies.add(new IpAddressMatcher(proxy));
+            }
+        }
+
+        return new RateLimitService(proxyManager, defaultPolicy, policies, buckets,
+            new DelayParameters(properties.getPrefetchTokens(), properties.getMaxUnsynchronized()),
+            trustedProxies, jwtService, localBucketCache(properties), properties.getRedisRetryInterval(),
+            Counter.builder("rate.limit.fallback")
+                .description("Rate limit checks answered by a node-local bucket because Redis was unavailable")
+                .register(meterRegistry));
+    }
+
+    private static Cache<String, Bucket> localBucketCache(RateLimitProperties properties) {
+        return Caffeine.newBuilder()
+            .maximumSize(properties.getLocal().getMaximumSize())
+            .expireAfterAccess(properties.getLocal().getIdleTimeout())
+            .build();
+    }
+
+    private static BucketConfiguration bucketConfiguration(long capacity, Duration refillPeriod) {
+        return BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder().capacity(capacity).refillIntervally(capacity, refillPeriod).build())
+            .build();
+    }
+
+    public record RateLimitPolicy(String name, String pattern, BucketConfiguration configuration) {
     }
 
-    @Component
+    @Slf4j
     public static class RateLimitService {
-        private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+
+        private static final String KEY_PREFIX = "rate-limit:";
+        private static final Pattern IPV4_LITERAL =
+            Pattern.compile("((25[0-5]|2[0-4]\\d|1?\\d?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1?\\d?\\d)");
+        private static final Pattern IPV6_LITERAL = Pattern.compile("[0-9a-fA-F.]*:[0-9a-fA-F:.]*");
+
+        private final ProxyManager<String> proxyManager;
+        private final RateLimitPolicy defaultPolicy;
+        private final List<RateLimitPolicy> policies;
+        private final Cache<String, Bucket> buckets;
+        private final DelayParameters delayParameters;
+        private final List<IpAddressMatcher> trustedProxies;
+        private final JwtService jwtService;
+        private final Cache<String, Bucket> fallbackBuckets;
+        private final Duration redisRetryInterval;
+        private final Counter fallbacks;
+        private volatile long redisRetryAt = System.nanoTime();
+        private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+        public RateLimitService(ProxyManager<String> proxyManager,
+                                RateLimitPolicy defaultPolicy,
+                                List<RateLimitPolicy> policies,
+                                Cache<String, Bucket> buckets,
+                                DelayParameters delayParameters,
+                                List<IpAddressMatcher> trustedProxies,
+                                JwtService jwtService,
+                                Cache<String, Bucket> fallbackBuckets,
+                                Duration redisRetryInterval,
+                                Counter fallbacks) {
+            this.proxyManager = proxyManager;
+            this.defaultPolicy = defaultPolicy;
+            this.policies = List.copyOf(policies);
+            this.buckets = buckets;
+            this.delayParameters = delayParameters;
+            this.trustedProxies = List.copyOf(trustedProxies);
+            this.jwtService = jwtService;
+            this.fallbackBuckets = fallbackBuckets;
+            this.redisRetryInterval = redisRetryInterval;
+            this.fallbacks = fallbacks;
+        }
+
+        // A Redis outage must not turn every limited route into a 500, login included. Requests are limited by
+        // node-local buckets instead, and Redis is tried again once redis-retry-interval has passed, so a down
+        // Redis costs one command timeout per interval rather than one per request.
+        public ConsumptionProbe tryConsume(RateLimitPolicy policy, String key) {
+            if (proxyManager != null && System.nanoTime() - redisRetryAt < 0) {
+                return tryConsumeLocally(policy, key);
+            }
+            try {
+                return resolveBucket(policy, key).tryConsumeAndReturnRemaining(1);
+            } catch (RuntimeException e) {
+                if (proxyManager == null) {
+                    throw e;
+                }
+                redisRetryAt = System.nanoTime() + redisRetryInterval.toNanos();
+                log.warn("Rate limit buckets unavailable in Redis; limiting per node for {}", redisRetryInterval, e);
+                return tryConsumeLocally(policy, key);
+            }
+        }
 
         public Bucket resolveBucket(String key) {
-            return cache.computeIfAbsent(key, k -> {
-                Bandwidth limit = Bandwidth.classic(100, Refill.intervally(100, Duration.ofMinutes(1)));
-                return Bucket.builder()
-                    .addLimit(limit)
-                    .build();
-            });
+            return resolveBucket(defaultPolicy, key);
+        }
+
+        public Bucket resolveBucket(RateLimitPolicy policy, String key) {
+            return buckets.get(policy.name() + ":" + key, k -> createBucket(k, policy.configuration()));
+        }
+
+        public RateLimitPolicy resolvePolicy(String path) {
+            for (RateLimitPolicy policy : policies) {
+                if (pathMatcher.match(policy.pattern(), path)) {
+                    return policy;
+                }
+            }
+            return defaultPolicy;
+        }
+
+        public String resolveKey(HttpServletRequest request) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null) {
+                Object principal = authentication.getPrincipal();
+                if (principal instanceof AuthenticatedUser authenticatedUser) {
+                    return "user:" + authenticatedUser.id();
+                }
+                if (principal instanceof User user) {
+                    return "user:" + user.getId();
+                }
+            }
+
+            // This filter runs before JwtAuthenticationFilter, so verify here: keying only tokens another request
+            // already verified on this node would charge every token's first request to the shared IP bucket.
+            // A valid token is cached by verify, and the authentication filter then reads it from the cache.
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                AuthenticatedUser authenticatedUser = null;
+                try {
+                    VerifiedToken token = jwtService.verify(authHeader.substring(7));
+                    authenticatedUser = token.isExpired() ? null : AuthenticatedUser.fromToken(token);
+                } catch (JwtException | IllegalArgumentException e) {
+                    // Invalid or expired tokens are limited by address, like anonymous requests
+                }
+                if (authenticatedUser != null) {
+                    return "user:" + authenticatedUser.id();
+                }
+            }
+            return "ip:" + getClientIp(request);
         }
-    }
-}
 
+        private ConsumptionProbe tryConsumeLocally(RateLimitPolicy policy, String key) {
+            fallbacks.increment();
+            return fallbackBuckets.get(policy.name() + ":" + key, k -> createLocalBucket(policy.configuration()))
+                .tryConsumeAndReturnRemaining(1);
+        }
+
+        private Bucket createBucket(String key, BucketConfiguration configuration) {
+            if (proxyManager == null) {
+                return createLocalBucket(configuration);
+            }
+            return proxyManager.builder()
+                .withOptimization(Optimizations.delaying(delayParameters))
+                .build(KEY_PREFIX + key, () -> configuration);
+        }
+
+        private static Bucket createLocalBucket(BucketConfiguration configuration) {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth bandwidth : configuration.getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build();
+        }
 
+        // X-Forwarded-For is only believed when the peer is a trusted proxy. Each proxy appends the address it saw,
+        // so the client is the right-most hop that is not itself a trusted proxy; anything further left was sent by
+        // the client and is never used as a key.
+        private String getClientIp(HttpServletRequest request) {
+            String remoteAddr = request.getRemoteAddr();
+            if (!isTrustedProxy(remoteAddr)) {
+                return remoteAddr;
+            }
+            String xForwardedFor = request.getHeader("X-Forwarded-For");
+            if (xForwardedFor == null || xForwardedFor.isEmpty()) {
+                return remoteAddr;
+            }
+            String[] hops = xForwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!isTrustedProxy(hop)) {
+                    return hop.isEmpty() ? remoteAddr : hop;
+                }
+            }
+            return remoteAddr;
+        }
+
+        private boolean isTrustedProxy(String address) {
+            if (trustedProxies.isEmpty() || address == null) {
+                return false;
+            }
+            // IpAddressMatcher resolves anything that is not an IP literal through DNS
+            if (!IPV4_LITERAL.matcher(address).matches() && !IPV6_LITERAL.matcher(address).matches()) {
+                return false;
+            }
+            try {
+                for (IpAddressMatcher proxy : trustedProxies) {
+                    if (proxy.matches(address)) {
+                        return true;
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.usps.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private boolean distributed = true;
+
+    private long capacity = 100;
+
+    private Duration refillPeriod = Duration.ofMinutes(1);
+
+    private long prefetchTokens = 5;
+
+    private Duration maxUnsynchronized = Duration.ofSeconds(1);
+
+    private Duration redisRetryInterval = Duration.ofSeconds(5);
+
+    private boolean trustForwardedFor = false;
+
+    private List<String> trustedProxies = new ArrayList<>(List.of("127.0.0.1", "::1"));
+
+    private int maxConcurrentRequests = 0;
+
+    private Local local = new Local();
+
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Local {
+        private long maximumSize = 100000;
+        private Duration idleTimeout = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Policy {
+        private String name;
+        private String pattern;
+        private long capacity;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
@@ -1,13 +1,23 @@
 package com.usps.portal.config;
 
-import org.springframework.cache.CacheManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usps.portal.cache.CacheInvalidationListener;
+import com.usps.portal.cache.CacheInvalidationPublisher;
+import com.usps.portal.cache.CacheValueSerializer;
+import com.usps.portal.cache.LayeredCacheManager;
+import com.usps.portal.realtime.TrackingSubscriptionRegistry;
+import com.usps.portal.realtime.TrackingUpdateListener;
+import com.usps.portal.service.TrackingNumberFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -16,30 +26,88 @@ import java.time.Duration;
 @Configuration
 public class RedisConfig {
 
+    public static final Duration CACHE_TTL = Duration.ofMinutes(10);
+
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public CacheValueSerializer cacheValueSerializer(CacheSerializationProperties properties) {
+        int threshold = properties.isCompressionEnabled() ? (int) properties.getCompressionThreshold().toBytes() : -1;
+        return new CacheValueSerializer(properties.getFormat(), threshold);
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       CacheValueSerializer cacheValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(cacheValueSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setHashValueSerializer(cacheValueSerializer);
         template.afterPropertiesSet();
         return template;
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public LayeredCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                            CacheValueSerializer cacheValueSerializer,
+                                            NearCacheProperties nearCacheProperties,
+                                            CacheInvalidationPublisher cacheInvalidationPublisher,
+                                            MeterRegistry meterRegistry) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(10))
+            .entryTtl(CACHE_TTL)
             .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer))
             .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(config)
             .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new LayeredCacheManager(redisCacheManager, nearCacheProperties, cacheInvalidationPublisher, meterRegistry);
     }
-}
 
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 ObjectMapper objectMapper,
+                                                                 NearCacheProperties nearCacheProperties) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, objectMapper, nearCacheProperties.getInvalidationChannel());
+    }
 
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            LayeredCacheManager cacheManager,
+                                                                            CacheInvalidationPublisher cacheInvalidationPublisher,
+                                                                            ObjectMapper objectMapper,
+                                                                            NearCacheProperties nearCacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            new CacheInvalidationListener(cacheManager, objectMapper, cacheInvalidationPublisher.getNodeId()),
+            new ChannelTopic(nearCacheProperties.getInvalidationChannel()));
+        return container;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer trackingUpdateListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                         TrackingSubscriptionRegistry trackingSubscriptionRegistry,
+                                                                         ObjectMapper objectMapper,
+                                                                         TrackingUpdateProperties trackingUpdateProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            new TrackingUpdateListener(trackingSubscriptionRegistry, objectMapper),
+            new ChannelTopic(trackingUpdateProperties.getChannel()));
+        return container;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer trackingFilterListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                         TrackingNumberFilter trackingNumberFilter,
+                                                                         TrackingFilterProperties trackingFilterProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(trackingNumberFilter, new ChannelTopic(trackingFilterProperties.getAdditionsChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,40 @@
+package com.usps.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Period;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "tracking-events")
+public class TrackingEventStorageProperties {
+
+    private int partitionMonthsAhead = 3;
+
+    private Duration maintenanceInterval = Duration.ofHours(6);
+
+    private Retention retention = new Retention();
+
+    private Compaction compaction = new Compaction();
+
+    @Data
+    public static class Retention {
+        private boolean enabled = true;
+        private Period horizon = Period.ofMonths(13);
+        private String archiveDirectory = "data/tracking-archive";
+        private DataSize blockSize = DataSize.ofKilobytes(64);
+        private Duration refreshInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Compaction {
+        private boolean enabled = true;
+        private Duration gracePeriod = Duration.ofDays(1);
+        private int batchSize = 500;
+        private Duration interval = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,27 @@
+package com.usps.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "tracking-filter")
+public class TrackingFilterProperties {
+
+    private boolean enabled = true;
+
+    private long expectedInsertions = 5_000_000;
+
+    private double falsePositiveRate = 0.01;
+
+    private String snapshotKey = "tracking-filter:snapshot";
+
+    private String additionsChannel = "tracking-filter:additions";
+
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+
+    private Duration syncInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,25 @@
+package com.usps.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "tracking-updates")
+public class TrackingUpdateProperties {
+
+    private String channel = "tracking:updates";
+
+    private int maxConnections = 20000;
+
+    private int maxConnectionsPerUser = 10;
+
+    private Duration heartbeatInterval = Duration.ofSeconds(25);
+
+    private Duration connectionTimeout = Duration.ofMinutes(30);
+
+    private int dispatchThreads = 4;
+}
@@ -0,0 +1,21 @@
+package com.usps.portal.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Slf4j
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+    @PostConstruct
+    public void checkRuntime() {
+        // Spring Boot silently keeps platform threads below Java 21
+        if (Runtime.version().feature() < 21) {
+            log.warn("virtual-threads profile is active but the runtime is Java {}; requests stay on platform threads",
+                Runtime.version().feature());
+        }
+    }
+}
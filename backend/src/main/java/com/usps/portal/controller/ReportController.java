@@ -1,19 +1,25 @@
 package com.usps.portal.controller;
 
+import com.usps.portal.dto.ShipmentSummary;
 import com.usps.portal.model.User;
 import com.usps.portal.service.ReportService;
+import com.usps.portal.service.ShipmentExportService;
 import com.usps.portal.service.UserService;
-import io.github.bucket4j.Bucket;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @RestController
@@ -21,57 +27,68 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ReportController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ReportService reportService;
     private final UserService userService;
-    private final com.usps.portal.config.RateLimitConfig.RateLimitService rateLimitService;
+    private final ShipmentExportService shipmentExportService;
 
     @GetMapping("/shipment-report")
     public ResponseEntity<?> getShipmentReport(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            HttpServletRequest request) {
-        
-        // Rate limiting
-        String clientIp = getClientIp(request);
-        Bucket bucket = rateLimitService.resolveBucket(clientIp);
-        if (!bucket.tryConsume(1)) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(Map.of("error", "Rate limit exceeded. Please try again later."));
-        }
-
+            @RequestParam(defaultValue = "false") boolean includeShipments,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         User currentUser = getCurrentUser();
         Map<String, Object> report = reportService.generateShipmentReport(currentUser, startDate, endDate);
-        return ResponseEntity.ok(report);
+        if (!includeShipments) {
+            return ResponseEntity.ok(report);
+        }
+
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+            Sort.by(Sort.Direction.DESC, "createdAt"));
+        Slice<ShipmentSummary> shipments = reportService.findShipmentsInRange(currentUser, startDate, endDate, pageRequest);
+
+        Map<String, Object> response = new HashMap<>(report);
+        response.put("shipments", shipments.getContent());
+        response.put("page", Map.of(
+            "number", shipments.getNumber(),
+            "size", shipments.getSize(),
+            "hasNext", shipments.hasNext()
+        ));
+        return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/statistics")
-    public ResponseEntity<?> getStatistics(HttpServletRequest request) {
-        // Rate limiting
-        String clientIp = getClientIp(request);
-        Bucket bucket = rateLimitService.resolveBucket(clientIp);
-        if (!bucket.tryConsume(1)) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(Map.of("error", "Rate limit exceeded. Please try again later."));
+    @GetMapping("/shipment-export")
+    public ResponseEntity<StreamingResponseBody> exportShipments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "csv") String format) {
+        ShipmentExportService.Format exportFormat;
+        try {
+            exportFormat = ShipmentExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
 
+        User currentUser = getCurrentUser();
+        StreamingResponseBody body = out -> shipmentExportService.export(currentUser, startDate, endDate, exportFormat, out);
+        String filename = "shipments-" + startDate.toLocalDate() + "-" + endDate.toLocalDate() + "." + exportFormat.extension();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
+
+    @GetMapping("/statistics")
+    public ResponseEntity<?> getStatistics() {
         User currentUser = getCurrentUser();
         Map<String, Object> stats = reportService.generateUserStatistics(currentUser);
         return ResponseEntity.ok(stats);
     }
 
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userService.findByEmail(email);
-    }
-
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
+        return userService.getCurrentUser();
     }
 }
-
-
@@ -0,0 +1,69 @@
+package com.usps.portal.controller;
+
+import com.usps.portal.dto.ScanEventRequest;
+import com.usps.portal.service.ScanIngestionService;
+import com.usps.portal.service.TrackingNumbers;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/scans")
+@RequiredArgsConstructor
+public class ScanController {
+
+    private static final int MAX_SCANS_PER_REQUEST = 5000;
+
+    private final ScanIngestionService scanIngestionService;
+    private final Validator validator;
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> ingestScans(@RequestBody List<ScanEventRequest> scans) {
+        if (scans.isEmpty() || scans.size() > MAX_SCANS_PER_REQUEST) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Request must contain between 1 and " + MAX_SCANS_PER_REQUEST + " scans"));
+        }
+
+        List<Map<String, Object>> invalid = new ArrayList<>();
+        for (int i = 0; i < scans.size(); i++) {
+            ScanEventRequest scan = scans.get(i);
+            List<String> errors = new ArrayList<>();
+            if (scan == null) {
+                errors.add("Scan is required");
+            } else {
+                if (scan.getTrackingNumber() != null) {
+                    scan.setTrackingNumber(TrackingNumbers.normalize(scan.getTrackingNumber()));
+                }
+                validator.validate(scan).stream().map(ConstraintViolation::getMessage).sorted().forEach(errors::add);
+                if (scan.getTrackingNumber() != null && !TrackingNumbers.isWellFormed(scan.getTrackingNumber())) {
+                    errors.add("Tracking number is malformed");
+                }
+            }
+            if (!errors.isEmpty()) {
+                invalid.add(Map.of("index", i, "errors", errors));
+            }
+        }
+        if (!invalid.isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Invalid scans", "invalid", invalid));
+        }
+
+        if (!scanIngestionService.submit(scans)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Scan ingestion queue is full, retry later"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(Map.of("accepted", scans.size(), "queued", scanIngestionService.queueSize()));
+    }
+}
@@ -1,61 +1,68 @@
 package com.usps.portal.controller;
 
+import com.usps.portal.dto.BatchItemResult;
+import com.usps.portal.dto.ShipmentCursor;
+import com.usps.portal.dto.ShipmentPage;
+import com.usps.portal.dto.ShipmentQuery;
+import com.usps.portal.dto.ShipmentRequest;
+import com.usps.portal.dto.TrackingLookupResult;
+import com.usps.portal.dto.TrackingView;
 import com.usps.portal.model.Shipment;
-import com.usps.portal.model.TrackingEvent;
 import com.usps.portal.model.User;
 import com.usps.portal.service.ShipmentService;
+import com.usps.portal.service.TrackingNumberFilter;
+import com.usps.portal.service.TrackingNumbers;
 import com.usps.portal.service.UserService;
-import io.github.bucket4j.Bucket;
-import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tracking")
 @RequiredArgsConstructor
 public class TrackingController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_LOOKUP_SIZE = 50;
+
     private final ShipmentService shipmentService;
     private final UserService userService;
-    private final com.usps.portal.config.RateLimitConfig.RateLimitService rateLimitService;
+    private final Validator validator;
+    private final TrackingNumberFilter trackingNumberFilter;
 
     @GetMapping("/{trackingNumber}")
-    public ResponseEntity<?> trackShipment(
-            @PathVariable String trackingNumber,
-            HttpServletRequest request) {
-        
-        // Rate limiting
-        String clientIp = getClientIp(request);
-        Bucket bucket = rateLimitService.resolveBucket(clientIp);
-        if (!bucket.tryConsume(1)) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(Map.of("error", "Rate limit exceeded. Please try again later."));
+    public ResponseEntity<?> trackShipment(@PathVariable("trackingNumber") String rawTrackingNumber) {
+        String trackingNumber = TrackingNumbers.normalize(rawTrackingNumber);
+        if (!TrackingNumbers.isWellFormed(trackingNumber)) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Invalid tracking number"));
+        }
+        if (!trackingNumberFilter.mightContain(trackingNumber)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Shipment not found"));
         }
-
         try {
-            Shipment shipment = shipmentService.findByTrackingNumber(trackingNumber);
+            TrackingView view = shipmentService.findTrackingView(trackingNumber);
             User currentUser = getCurrentUser();
             
-            // Verify ownership - access user ID to trigger lazy loading within transaction
-            Long shipmentUserId = shipment.getUser().getId();
-            if (!shipmentUserId.equals(currentUser.getId())) {
+            if (!view.ownerId().equals(currentUser.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "Access denied"));
             }
             
-            List<TrackingEvent> events = shipmentService.getTrackingEvents(trackingNumber);
-            
-            return ResponseEntity.ok(Map.of(
-                "shipment", shipment,
-                "events", events
-            ));
+            return ResponseEntity.ok(view);
         } catch (RuntimeException e) {
             if (e.getMessage() != null && e.getMessage().contains("Shipment not found")) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -68,60 +75,120 @@ public class TrackingController {
         }
     }
 
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookupShipments(@RequestBody List<String> trackingNumbers) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String trackingNumber : trackingNumbers) {
+            if (trackingNumber != null && !trackingNumber.isBlank()) {
+                normalized.add(TrackingNumbers.normalize(trackingNumber));
+            }
+        }
+        if (normalized.isEmpty() || normalized.size() > MAX_LOOKUP_SIZE) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Lookup must contain between 1 and " + MAX_LOOKUP_SIZE + " tracking numbers"));
+        }
+
+        Long currentUserId = getCurrentUser().getId();
+        // Malformed numbers cannot exist, so they never reach the cache or the database
+        List<String> wellFormed = normalized.stream().filter(TrackingNumbers::isWellFormed).toList();
+        Map<String, TrackingView> views = wellFormed.isEmpty() ? Map.of() : shipmentService.findTrackingViews(wellFormed);
+        List<TrackingLookupResult> results = new ArrayList<>(normalized.size());
+        for (String trackingNumber : normalized) {
+            TrackingView view = views.get(trackingNumber);
+            if (!TrackingNumbers.isWellFormed(trackingNumber)) {
+                results.add(TrackingLookupResult.invalid(trackingNumber));
+            } else if (view == null) {
+                results.add(TrackingLookupResult.notFound(trackingNumber));
+            } else if (!view.ownerId().equals(currentUserId)) {
+                results.add(TrackingLookupResult.forbidden(trackingNumber));
+            } else {
+                results.add(TrackingLookupResult.found(view));
+            }
+        }
+        return ResponseEntity.ok(Map.of("results", results));
+    }
+
     @GetMapping("/my-shipments")
-    public ResponseEntity<?> getMyShipments(HttpServletRequest request) {
-        // Rate limiting
-        String clientIp = getClientIp(request);
-        Bucket bucket = rateLimitService.resolveBucket(clientIp);
-        if (!bucket.tryConsume(1)) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(Map.of("error", "Rate limit exceeded. Please try again later."));
+    public ResponseEntity<?> getMyShipments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ShipmentQuery.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) Shipment.ShipmentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ShipmentQuery query;
+        try {
+            query = new ShipmentQuery(cursor != null ? ShipmentCursor.decode(cursor) : null, limit, status, from, to);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
 
         User currentUser = getCurrentUser();
-        List<Shipment> shipments = shipmentService.findByUser(currentUser);
-        return ResponseEntity.ok(Map.of("shipments", shipments));
+        ShipmentPage page = shipmentService.findByUser(currentUser, query);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("shipments", page.shipments());
+        response.put("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/create")
-    public ResponseEntity<?> createShipment(
-            @RequestBody com.usps.portal.dto.ShipmentRequest request,
-            HttpServletRequest httpRequest) {
-        
-        // Rate limiting
-        String clientIp = getClientIp(httpRequest);
-        Bucket bucket = rateLimitService.resolveBucket(clientIp);
-        if (!bucket.tryConsume(1)) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(Map.of("error", "Rate limit exceeded. Please try again later."));
+    public ResponseEntity<?> createShipment(@RequestBody ShipmentRequest request) {
+        User currentUser = getCurrentUser();
+        Shipment created = shipmentService.createShipment(currentUser, toShipment(request));
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createShipments(@RequestBody List<ShipmentRequest> requests) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Batch must contain between 1 and " + MAX_BATCH_SIZE + " shipments"));
         }
 
-        User currentUser = getCurrentUser();
-        
-        Shipment shipment = Shipment.builder()
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Shipment> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ShipmentRequest item = requests.get(i);
+            if (item == null) {
+                results[i] = BatchItemResult.invalid(i, List.of("Shipment is required"));
+                continue;
+            }
+            Set<ConstraintViolation<ShipmentRequest>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                results[i] = BatchItemResult.invalid(i, violations.stream().map(ConstraintViolation::getMessage).sorted().toList());
+                continue;
+            }
+            valid.add(toShipment(item));
+            validIndexes.add(i);
+        }
+
+        List<Shipment> created = valid.isEmpty() ? List.of() : shipmentService.createShipments(getCurrentUser(), valid);
+        for (int i = 0; i < created.size(); i++) {
+            int index = validIndexes.get(i);
+            results[index] = BatchItemResult.created(index, created.get(i).getTrackingNumber());
+        }
+
+        return ResponseEntity.status(created.isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED)
+            .body(Map.of(
+                "created", created.size(),
+                "failed", requests.size() - created.size(),
+                "results", List.of(results)
+            ));
+    }
+
+    private Shipment toShipment(ShipmentRequest request) {
+        return Shipment.builder()
             .recipientName(request.getRecipientName())
             .recipientAddress(request.getRecipientAddress())
             .recipientCity(request.getRecipientCity())
             .recipientState(request.getRecipientState())
             .recipientZipCode(request.getRecipientZipCode())
             .build();
-        
-        Shipment created = shipmentService.createShipment(currentUser, shipment);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userService.findByEmail(email);
-    }
-
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
+        return userService.getCurrentUser();
     }
 }
 
@@ -0,0 +1,59 @@
+package com.usps.portal.controller;
+
+import com.usps.portal.dto.TrackingView;
+import com.usps.portal.model.User;
+import com.usps.portal.realtime.TrackingSubscriptionRegistry;
+import com.usps.portal.service.ShipmentService;
+import com.usps.portal.service.TrackingNumbers;
+import com.usps.portal.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tracking")
+@RequiredArgsConstructor
+public class TrackingUpdateController {
+
+    private final TrackingSubscriptionRegistry subscriptionRegistry;
+    private final ShipmentService shipmentService;
+    private final UserService userService;
+
+    @GetMapping(value = "/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMyShipments() {
+        return subscribe(userService.getCurrentUser(), null);
+    }
+
+    @GetMapping(value = "/{trackingNumber}/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamShipment(@PathVariable("trackingNumber") String rawTrackingNumber) {
+        String trackingNumber = TrackingNumbers.normalize(rawTrackingNumber);
+        if (!TrackingNumbers.isWellFormed(trackingNumber)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid tracking number");
+        }
+        User currentUser = userService.getCurrentUser();
+        TrackingView view = shipmentService.findTrackingViews(List.of(trackingNumber)).get(trackingNumber);
+        if (view == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Shipment not found");
+        }
+        if (!view.ownerId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+        return subscribe(currentUser, trackingNumber);
+    }
+
+    private SseEmitter subscribe(User user, String trackingNumber) {
+        SseEmitter emitter = subscriptionRegistry.subscribe(user.getId(), trackingNumber);
+        if (emitter == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open update streams, retry later");
+        }
+        return emitter;
+    }
+}
@@ -0,0 +1,14 @@
+package com.usps.portal.dto;
+
+import java.util.List;
+
+public record BatchItemResult(int index, boolean created, String trackingNumber, List<String> errors) {
+
+    public static BatchItemResult created(int index, String trackingNumber) {
+        return new BatchItemResult(index, true, trackingNumber, List.of());
+    }
+
+    public static BatchItemResult invalid(int index, List<String> errors) {
+        return new BatchItemResult(index, false, null, errors);
+    }
+}
@@ -0,0 +1,36 @@
+package com.usps.portal.dto;
+
+import com.usps.portal.model.Shipment;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanEventRequest {
+    @NotBlank(message = "Tracking number is required")
+    @Size(max = 22, message = "Tracking number must be at most 22 characters")
+    private String trackingNumber;
+
+    @NotBlank(message = "Location is required")
+    @Size(max = 255, message = "Location must be at most 255 characters")
+    private String location;
+
+    @NotBlank(message = "Description is required")
+    @Size(max = 255, message = "Description must be at most 255 characters")
+    private String description;
+
+    @NotNull(message = "Event time is required")
+    private LocalDateTime eventTime;
+
+    // Optional; moves the shipment to this status when the transition is allowed
+    private Shipment.ShipmentStatus status;
+}
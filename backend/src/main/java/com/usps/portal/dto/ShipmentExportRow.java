@@ -0,0 +1,19 @@
+package com.usps.portal.dto;
+
+import com.usps.portal.model.Shipment;
+
+import java.time.LocalDateTime;
+
+public record ShipmentExportRow(
+    String trackingNumber,
+    String recipientName,
+    String recipientAddress,
+    String recipientCity,
+    String recipientState,
+    String recipientZipCode,
+    Shipment.ShipmentStatus status,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    LocalDateTime deliveredAt
+) {
+}
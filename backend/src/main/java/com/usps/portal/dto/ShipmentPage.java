@@ -0,0 +1,6 @@
+package com.usps.portal.dto;
+
+import java.util.List;
+
+public record ShipmentPage(List<ShipmentSummary> shipments, String nextCursor) {
+}
@@ -0,0 +1,25 @@
+package com.usps.portal.dto;
+
+import com.usps.portal.model.Shipment;
+
+import java.time.LocalDateTime;
+
+public record ShipmentQuery(
+    ShipmentCursor cursor,
+    int limit,
+    Shipment.ShipmentStatus status,
+    LocalDateTime from,
+    LocalDateTime to
+) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    public ShipmentQuery {
+        limit = Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+
+    public boolean isDefaultFirstPage() {
+        return cursor == null && limit == DEFAULT_LIMIT && status == null && from == null && to == null;
+    }
+}
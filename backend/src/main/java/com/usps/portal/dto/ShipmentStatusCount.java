@@ -0,0 +1,6 @@
+package com.usps.portal.dto;
+
+import com.usps.portal.model.Shipment;
+
+public record ShipmentStatusCount(Shipment.ShipmentStatus status, Long count) {
+}
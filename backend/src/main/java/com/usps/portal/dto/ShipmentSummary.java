@@ -0,0 +1,22 @@
+package com.usps.portal.dto;
+
+import com.usps.portal.model.Shipment;
+
+import java.time.LocalDateTime;
+
+// Read-model row selected straight from the shipments table; ownerId is the user_id column, so no User is loaded
+public record ShipmentSummary(
+    Long id,
+    String trackingNumber,
+    Long ownerId,
+    String recipientName,
+    String recipientAddress,
+    String recipientCity,
+    String recipientState,
+    String recipientZipCode,
+    Shipment.ShipmentStatus status,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    LocalDateTime deliveredAt
+) {
+}
@@ -0,0 +1,12 @@
+package com.usps.portal.dto;
+
+import com.usps.portal.model.TrackingEvent;
+
+import java.time.LocalDateTime;
+
+public record TrackingEventView(String location, String description, LocalDateTime eventTime) {
+
+    public static TrackingEventView of(TrackingEvent event) {
+        return new TrackingEventView(event.getLocation(), event.getDescription(), event.getEventTime());
+    }
+}
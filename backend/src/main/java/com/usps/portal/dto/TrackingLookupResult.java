@@ -0,0 +1,24 @@
+package com.usps.portal.dto;
+
+public record TrackingLookupResult(String trackingNumber, Outcome outcome, TrackingView tracking) {
+
+    public enum Outcome {
+        FOUND, NOT_FOUND, FORBIDDEN, INVALID
+    }
+
+    public static TrackingLookupResult found(TrackingView tracking) {
+        return new TrackingLookupResult(tracking.trackingNumber(), Outcome.FOUND, tracking);
+    }
+
+    public static TrackingLookupResult notFound(String trackingNumber) {
+        return new TrackingLookupResult(trackingNumber, Outcome.NOT_FOUND, null);
+    }
+
+    public static TrackingLookupResult invalid(String trackingNumber) {
+        return new TrackingLookupResult(trackingNumber, Outcome.INVALID, null);
+    }
+
+    public static TrackingLookupResult forbidden(String trackingNumber) {
+        return new TrackingLookupResult(trackingNumber, Outcome.FORBIDDEN, null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.usps.portal.dto;
+
+import com.usps.portal.model.Shipment;
+import com.usps.portal.model.TrackingEvent;
+
+import java.time.LocalDateTime;
+
+public record TrackingUpdate(
+    String trackingNumber,
+    Long ownerId,
+    Shipment.ShipmentStatus status,
+    TrackingEventView event,
+    LocalDateTime updatedAt
+) {
+
+    public static TrackingUpdate statusChanged(Shipment shipment) {
+        return new TrackingUpdate(shipment.getTrackingNumber(), shipment.getUser().getId(),
+            shipment.getStatus(), null, shipment.getUpdatedAt());
+    }
+
+    public static TrackingUpdate eventRecorded(Shipment shipment, TrackingEvent event) {
+        return new TrackingUpdate(shipment.getTrackingNumber(), shipment.getUser().getId(),
+            shipment.getStatus(), TrackingEventView.of(event), shipment.getUpdatedAt());
+    }
+}
@@ -0,0 +1,76 @@
+package com.usps.portal.dto;
+
+import com.usps.portal.model.Shipment;
+import com.usps.portal.model.TrackingEventLog;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record TrackingView(
+    String trackingNumber,
+    Long ownerId,
+    Shipment.ShipmentStatus status,
+    String recipientName,
+    String recipientAddress,
+    String recipientCity,
+    String recipientState,
+    String recipientZipCode,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    LocalDateTime deliveredAt,
+    List<TrackingEventView> events
+) {
+
+    public TrackingView withEvents(List<TrackingEventView> events) {
+        return new TrackingView(trackingNumber, ownerId, status, recipientName, recipientAddress, recipientCity,
+            recipientState, recipientZipCode, createdAt, updatedAt, deliveredAt, events);
+    }
+
+    // Folds join rows (ordered by tracking number, then newest event first) into one view per shipment.
+    // A compacted shipment's history comes from its event log; rows recorded after compaction are merged in.
+    public static Map<String, TrackingView> fromRows(List<TrackingViewRow> rows) {
+        Map<String, TrackingView> views = new LinkedHashMap<>();
+        int start = 0;
+        while (start < rows.size()) {
+            TrackingViewRow first = rows.get(start);
+            List<TrackingEventView> events = new ArrayList<>();
+            int end = start;
+            while (end < rows.size() && rows.get(end).trackingNumber().equals(first.trackingNumber())) {
+                TrackingViewRow row = rows.get(end);
+                if (row.eventTime() != null) {
+                    events.add(new TrackingEventView(row.eventLocation(), row.eventDescription(), row.eventTime()));
+                }
+                end++;
+            }
+            if (first.eventLog() != null) {
+                boolean lateRows = !events.isEmpty();
+                for (TrackingEventLog.Entry entry : TrackingEventLog.decode(first.eventLog())) {
+                    events.add(new TrackingEventView(entry.location(), entry.description(), entry.eventTime()));
+                }
+                if (lateRows) {
+                    events.sort(Comparator.comparing(TrackingEventView::eventTime).reversed());
+                }
+            }
+            views.put(first.trackingNumber(), new TrackingView(
+                first.trackingNumber(),
+                first.ownerId(),
+                first.status(),
+                first.recipientName(),
+                first.recipientAddress(),
+                first.recipientCity(),
+                first.recipientState(),
+                first.recipientZipCode(),
+                first.createdAt(),
+                first.updatedAt(),
+                first.deliveredAt(),
+                events
+            ));
+            start = end;
+        }
+        return views;
+    }
+}
@@ -0,0 +1,26 @@
+package com.usps.portal.dto;
+
+import com.usps.portal.model.Shipment;
+
+import java.time.LocalDateTime;
+
+// One shipment/event pair from the tracking view join; event columns are null for a shipment without event rows,
+// which is the usual case once its history is compacted into eventLog
+public record TrackingViewRow(
+    String trackingNumber,
+    Long ownerId,
+    Shipment.ShipmentStatus status,
+    String recipientName,
+    String recipientAddress,
+    String recipientCity,
+    String recipientState,
+    String recipientZipCode,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    LocalDateTime deliveredAt,
+    byte[] eventLog,
+    String eventLocation,
+    String eventDescription,
+    LocalDateTime eventTime
+) {
+}
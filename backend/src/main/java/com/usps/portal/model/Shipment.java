@@ -1,11 +1,13 @@
 package com.usps.portal.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -18,7 +20,8 @@ import java.time.LocalDateTime;
 public class Shipment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipments_id_generator")
+    @SequenceGenerator(name = "shipments_id_generator", sequenceName = "shipments_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -55,9 +58,24 @@ public class Shipment {
     private LocalDateTime updatedAt;
     
     private LocalDateTime deliveredAt;
+
+    // TrackingEventLog written by TrackingEventCompactionJob; never written through the entity so a stale copy
+    // cannot overwrite it
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(insertable = false, updatable = false)
+    private byte[] eventLog;
     
     public enum ShipmentStatus {
-        PENDING, IN_TRANSIT, OUT_FOR_DELIVERY, DELIVERED, EXCEPTION
+        PENDING, IN_TRANSIT, OUT_FOR_DELIVERY, DELIVERED, EXCEPTION;
+
+        // Scans can arrive out of order, so only forward moves (or into/out of EXCEPTION) are applied
+        public boolean canTransitionTo(ShipmentStatus next) {
+            if (next == null || next == this || this == DELIVERED) {
+                return false;
+            }
+            return next == EXCEPTION || this == EXCEPTION || next.ordinal() > ordinal();
+        }
     }
 }
 
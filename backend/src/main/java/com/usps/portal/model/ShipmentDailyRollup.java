@@ -0,0 +1,42 @@
+package com.usps.portal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "shipment_daily_rollups")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipmentDailyRollup {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(nullable = false)
+    private long shipmentCount;
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+        
+        @Column(nullable = false)
+        private LocalDate rollupDate;
+        
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private Shipment.ShipmentStatus status;
+    }
+}
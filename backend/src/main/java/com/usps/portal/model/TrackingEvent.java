@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+// tracking_events is range-partitioned by eventTime month, so its primary key is (id, eventTime)
 @Entity
 @Table(name = "tracking_events")
 @Data
@@ -17,7 +18,8 @@ import java.time.LocalDateTime;
 public class TrackingEvent {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tracking_events_id_generator")
+    @SequenceGenerator(name = "tracking_events_id_generator", sequenceName = "tracking_events_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
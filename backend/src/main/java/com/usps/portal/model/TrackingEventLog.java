@@ -0,0 +1,200 @@
+package com.usps.portal.model;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Compact form of a delivered shipment's event history, stored in shipments.eventLog.
+// Layout after the format byte (varints; signed values zigzag-encoded):
+//   string count, then each string as byte length + UTF-8   (locations and descriptions, each stored once)
+//   event count, eventTime of the oldest event in epoch microseconds
+//   per event, oldest first: location index, description index, microseconds since the previous event,
+//   createdAt minus eventTime in microseconds
+// FORMAT_DEFLATED wraps that payload (prefixed by its length) in raw deflate primed with PRESET_DICTIONARY;
+// whichever of the two forms is smaller is stored.
+public final class TrackingEventLog {
+
+    private static final byte FORMAT_PLAIN = 1;
+    private static final byte FORMAT_DEFLATED = 2;
+
+    // Part of FORMAT_DEFLATED: never edit it, add a new format instead. Most common phrases go last.
+    private static final byte[] PRESET_DICTIONARY = String.join(" ",
+        "Delivered, Front Door/Porch", "Delivered, In/At Mailbox", "Delivered, Left with Individual",
+        "Delivered, Parcel Locker", "Available for Pickup", "Notice Left (No Authorized Recipient Available)",
+        "Arrived at Post Office", "Departed Post Office", "Accepted at USPS Origin Facility",
+        "USPS in possession of item", "Processed through Facility", "Departed USPS Regional Facility",
+        "In Transit to Next Facility", "Out for Delivery", "Arrived at USPS Regional Facility",
+        "Distribution Center", "Origin Facility", "Shipment created and pending pickup")
+        .getBytes(StandardCharsets.UTF_8);
+
+    private TrackingEventLog() {
+    }
+
+    public record Entry(String location, String description, LocalDateTime eventTime, LocalDateTime createdAt) {
+    }
+
+    public static byte[] encode(List<Entry> entries) {
+        List<Entry> ordered = new ArrayList<>(entries);
+        ordered.sort(Comparator.comparing(Entry::eventTime));
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] locations = new int[ordered.size()];
+        int[] descriptions = new int[ordered.size()];
+        for (int i = 0; i < ordered.size(); i++) {
+            locations[i] = dictionary.computeIfAbsent(ordered.get(i).location(), s -> add(strings, s));
+            descriptions[i] = dictionary.computeIfAbsent(ordered.get(i).description(), s -> add(strings, s));
+        }
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64 + ordered.size() * 8);
+        writeVarLong(payload, strings.size());
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(payload, bytes.length);
+            payload.writeBytes(bytes);
+        }
+        writeVarLong(payload, ordered.size());
+        long previous = ordered.isEmpty() ? 0 : micros(ordered.get(0).eventTime());
+        writeVarLong(payload, zigzag(previous));
+        for (int i = 0; i < ordered.size(); i++) {
+            Entry entry = ordered.get(i);
+            long eventTime = micros(entry.eventTime());
+            writeVarLong(payload, locations[i]);
+            writeVarLong(payload, descriptions[i]);
+            writeVarLong(payload, zigzag(eventTime - previous));
+            writeVarLong(payload, zigzag(micros(entry.createdAt()) - eventTime));
+            previous = eventTime;
+        }
+
+        byte[] plain = payload.toByteArray();
+        byte[] deflated = deflate(plain);
+        if (deflated.length < plain.length) {
+            return deflated;
+        }
+        byte[] result = new byte[plain.length + 1];
+        result[0] = FORMAT_PLAIN;
+        System.arraycopy(plain, 0, result, 1, plain.length);
+        return result;
+    }
+
+    // Newest event first, the order the tracking page shows them in
+    public static List<Entry> decode(byte[] log) {
+        ByteBuffer payload = switch (log[0]) {
+            case FORMAT_PLAIN -> ByteBuffer.wrap(log, 1, log.length - 1);
+            case FORMAT_DEFLATED -> ByteBuffer.wrap(inflate(log));
+            default -> throw new IllegalArgumentException("Unknown tracking event log format " + log[0]);
+        };
+
+        String[] strings = new String[(int) readVarLong(payload)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[(int) readVarLong(payload)];
+            payload.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int count = (int) readVarLong(payload);
+        long eventTime = unzigzag(readVarLong(payload));
+        Entry[] entries = new Entry[count];
+        for (int i = 0; i < count; i++) {
+            String location = strings[(int) readVarLong(payload)];
+            String description = strings[(int) readVarLong(payload)];
+            eventTime += unzigzag(readVarLong(payload));
+            long createdAt = eventTime + unzigzag(readVarLong(payload));
+            entries[count - 1 - i] = new Entry(location, description, fromMicros(eventTime), fromMicros(createdAt));
+        }
+        return List.of(entries);
+    }
+
+    private static int add(List<String> strings, String value) {
+        strings.add(value);
+        return strings.size() - 1;
+    }
+
+    private static byte[] deflate(byte[] plain) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setDictionary(PRESET_DICTIONARY);
+            deflater.setInput(plain);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length + 16);
+            out.write(FORMAT_DEFLATED);
+            writeVarLong(out, plain.length);
+            byte[] buffer = new byte[Math.max(64, plain.length)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] log) {
+        ByteBuffer header = ByteBuffer.wrap(log, 1, log.length - 1);
+        byte[] plain = new byte[(int) readVarLong(header)];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(PRESET_DICTIONARY);
+            inflater.setInput(log, header.position(), log.length - header.position());
+            int length = 0;
+            while (length < plain.length) {
+                int inflated = inflater.inflate(plain, length, plain.length - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalArgumentException("Truncated tracking event log");
+                }
+                length += inflated;
+            }
+            return plain;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt tracking event log", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+            (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in tracking event log");
+    }
+}
@@ -0,0 +1,200 @@
+package com.usps.portal.realtime;
+
+import com.usps.portal.config.TrackingUpdateProperties;
+import com.usps.portal.dto.TrackingUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Emitters are async servlet responses, so an idle subscription holds a socket but no thread
+@Slf4j
+@Component
+public class TrackingSubscriptionRegistry {
+
+    private final TrackingUpdateProperties properties;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscription>> byTrackingNumber = new ConcurrentHashMap<>();
+    private final Map<Long, List<Subscription>> byUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeats;
+
+    private final Counter rejected;
+    private final Counter displaced;
+    private final Counter delivered;
+    private final Counter heartbeatsSent;
+
+    public TrackingSubscriptionRegistry(TrackingUpdateProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dispatcher = Executors.newFixedThreadPool(properties.getDispatchThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "tracking-updates-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracking-updates-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("tracking.updates.connections", connections, AtomicInteger::get)
+            .description("Open tracking update streams on this node")
+            .register(meterRegistry);
+        Gauge.builder("tracking.updates.connections.max", properties, TrackingUpdateProperties::getMaxConnections)
+            .description("Tracking update stream limit for this node")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("tracking.updates.rejected")
+            .description("Streams refused because the node limit was reached")
+            .register(meterRegistry);
+        this.displaced = Counter.builder("tracking.updates.displaced")
+            .description("Streams closed to admit a newer stream from the same user")
+            .register(meterRegistry);
+        this.delivered = Counter.builder("tracking.updates.delivered")
+            .description("Tracking updates written to subscribers")
+            .register(meterRegistry);
+        this.heartbeatsSent = Counter.builder("tracking.updates.heartbeats")
+            .description("Heartbeat comments written to subscribers")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeats.shutdownNow();
+        dispatcher.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter().complete());
+    }
+
+    // trackingNumber null subscribes to every shipment the user owns; returns null when the node is full
+    public SseEmitter subscribe(Long userId, String trackingNumber) {
+        if (connections.incrementAndGet() > properties.getMaxConnections()) {
+            connections.decrementAndGet();
+            rejected.increment();
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getConnectionTimeout().toMillis());
+        Subscription subscription = new Subscription(userId, trackingNumber, emitter);
+        subscriptions.add(subscription);
+        if (trackingNumber != null) {
+            byTrackingNumber.compute(trackingNumber, (key, set) -> {
+                Set<Subscription> target = set != null ? set : ConcurrentHashMap.newKeySet();
+                target.add(subscription);
+                return target;
+            });
+        }
+
+        // Oldest stream gives way when a user exceeds the per-user limit (stale tabs, reconnect storms)
+        List<Subscription> overflow = new ArrayList<>();
+        byUser.compute(userId, (key, list) -> {
+            List<Subscription> target = list != null ? list : new CopyOnWriteArrayList<>();
+            target.add(subscription);
+            while (target.size() > properties.getMaxConnectionsPerUser()) {
+                overflow.add(target.remove(0));
+            }
+            return target;
+        });
+        overflow.forEach(old -> {
+            displaced.increment();
+            close(old);
+        });
+
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(error -> unregister(subscription));
+        return emitter;
+    }
+
+    public void dispatch(List<TrackingUpdate> updates) {
+        for (TrackingUpdate update : updates) {
+            List<Subscription> targets = new ArrayList<>();
+            Set<Subscription> numberSubscriptions = byTrackingNumber.get(update.trackingNumber());
+            if (numberSubscriptions != null) {
+                targets.addAll(numberSubscriptions);
+            }
+            List<Subscription> userSubscriptions = byUser.get(update.ownerId());
+            if (userSubscriptions != null) {
+                userSubscriptions.stream().filter(s -> s.trackingNumber() == null).forEach(targets::add);
+            }
+            if (!targets.isEmpty()) {
+                // Keep the Redis listener thread free of blocking socket writes
+                dispatcher.execute(() -> targets.forEach(target -> send(target, update)));
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    private void send(Subscription subscription, TrackingUpdate update) {
+        try {
+            subscription.emitter().send(SseEmitter.event().name("tracking").data(update, MediaType.APPLICATION_JSON));
+            delivered.increment();
+        } catch (IOException | RuntimeException e) {
+            unregister(subscription);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscription subscription : subscriptions) {
+            try {
+                subscription.emitter().send(SseEmitter.event().comment("ping"));
+                heartbeatsSent.increment();
+            } catch (IOException | RuntimeException e) {
+                unregister(subscription);
+            }
+        }
+    }
+
+    private void close(Subscription subscription) {
+        unregister(subscription);
+        subscription.emitter().complete();
+    }
+
+    private void unregister(Subscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        connections.decrementAndGet();
+        if (subscription.trackingNumber() != null) {
+            byTrackingNumber.computeIfPresent(subscription.trackingNumber(), (key, set) -> {
+                set.remove(subscription);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        byUser.computeIfPresent(subscription.userId(), (key, list) -> {
+            list.remove(subscription);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private record Subscription(Long userId, String trackingNumber, SseEmitter emitter) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.usps.portal.realtime;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usps.portal.dto.TrackingUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+public class TrackingUpdateListener implements MessageListener {
+
+    private static final TypeReference<List<TrackingUpdate>> UPDATES = new TypeReference<>() {
+    };
+
+    private final TrackingSubscriptionRegistry registry;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            registry.dispatch(objectMapper.readValue(message.getBody(), UPDATES));
+        } catch (IOException e) {
+            log.warn("Ignoring malformed tracking update message", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.usps.portal.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usps.portal.config.TrackingUpdateProperties;
+import com.usps.portal.dto.TrackingUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrackingUpdatePublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TrackingUpdateProperties properties;
+
+    // Inside a transaction the updates go out only once it commits
+    public void publish(List<TrackingUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(updates);
+                }
+            });
+        } else {
+            send(updates);
+        }
+    }
+
+    private void send(List<TrackingUpdate> updates) {
+        try {
+            redisTemplate.convertAndSend(properties.getChannel(), objectMapper.writeValueAsString(updates));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to publish {} tracking updates", updates.size(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.usps.portal.repository;
+
+import com.usps.portal.dto.ShipmentStatusCount;
+import com.usps.portal.model.ShipmentDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ShipmentDailyRollupRepository extends JpaRepository<ShipmentDailyRollup, ShipmentDailyRollup.Key> {
+
+    @Modifying
+    @Query(value = "INSERT INTO shipment_daily_rollups (user_id, rollup_date, status, shipment_count) " +
+                   "VALUES (:userId, :rollupDate, :status, :delta) " +
+                   "ON CONFLICT (user_id, rollup_date, status) " +
+                   "DO UPDATE SET shipment_count = shipment_daily_rollups.shipment_count + EXCLUDED.shipment_count",
+           nativeQuery = true)
+    void increment(
+        @Param("userId") Long userId,
+        @Param("rollupDate") LocalDate rollupDate,
+        @Param("status") String status,
+        @Param("delta") long delta
+    );
+
+    @Query("SELECT new com.usps.portal.dto.ShipmentStatusCount(r.id.status, SUM(r.shipmentCount)) " +
+           "FROM ShipmentDailyRollup r WHERE r.id.userId = :userId GROUP BY r.id.status")
+    List<ShipmentStatusCount> sumByStatus(@Param("userId") Long userId);
+
+    @Query("SELECT new com.usps.portal.dto.ShipmentStatusCount(r.id.status, SUM(r.shipmentCount)) " +
+           "FROM ShipmentDailyRollup r WHERE r.id.userId = :userId " +
+           "AND r.id.rollupDate >= :fromDay AND r.id.rollupDate < :toDay GROUP BY r.id.status")
+    List<ShipmentStatusCount> sumByStatusAndDays(
+        @Param("userId") Long userId,
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+
+    @Modifying
+    @Query(value = "LOCK TABLE shipments IN SHARE MODE", nativeQuery = true)
+    void lockShipments();
+
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM shipment_rollup_backfills)", nativeQuery = true)
+    boolean isBackfilled();
+
+    @Modifying
+    @Query(value = "INSERT INTO shipment_rollup_backfills (id, buckets) VALUES (1, :buckets)", nativeQuery = true)
+    void markBackfilled(@Param("buckets") int buckets);
+
+    @Modifying
+    @Query(value = "DELETE FROM shipment_daily_rollups", nativeQuery = true)
+    int deleteAllRollups();
+
+    @Modifying
+    @Query(value = "INSERT INTO shipment_daily_rollups (user_id, rollup_date, status, shipment_count) " +
+                   "SELECT user_id, CAST(created_at AS date), status, COUNT(*) FROM shipments " +
+                   "GROUP BY user_id, CAST(created_at AS date), status",
+           nativeQuery = true)
+    int rebuildFromShipments();
+}
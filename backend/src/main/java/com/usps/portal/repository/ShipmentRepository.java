@@ -1,20 +1,56 @@
 package com.usps.portal.repository;
 
+import com.usps.portal.dto.ShipmentExportRow;
+import com.usps.portal.dto.ShipmentStatusCount;
+import com.usps.portal.dto.ShipmentSummary;
+import com.usps.portal.dto.TrackingViewRow;
 import com.usps.portal.model.Shipment;
 import com.usps.portal.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
-    Optional<Shipment> findByTrackingNumber(String trackingNumber);
+public interface ShipmentRepository extends JpaRepository<Shipment, Long>, JpaSpecificationExecutor<Shipment>,
+        ShipmentSummaryRepository {
+    // Status changes read the current status under a row lock, so a concurrent change cannot be lost or counted
+    // twice in the rollups
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Shipment s WHERE s.trackingNumber = :trackingNumber")
+    Optional<Shipment> lockByTrackingNumber(@Param("trackingNumber") String trackingNumber);
+
+    // Shipment, owner id and events in one round trip; TrackingView.fromRows relies on this ordering
+    @Query("SELECT new com.usps.portal.dto.TrackingViewRow(s.trackingNumber, s.user.id, s.status, s.recipientName, " +
+           "s.recipientAddress, s.recipientCity, s.recipientState, s.recipientZipCode, s.createdAt, s.updatedAt, " +
+           "s.deliveredAt, s.eventLog, e.location, e.description, e.eventTime) " +
+           "FROM Shipment s LEFT JOIN TrackingEvent e ON e.shipment = s " +
+           "WHERE s.trackingNumber IN :trackingNumbers ORDER BY s.trackingNumber, e.eventTime DESC")
+    List<TrackingViewRow> findTrackingViewRows(@Param("trackingNumbers") Collection<String> trackingNumbers);
+
+    // Locked in id order, so writers whose batches overlap wait for each other instead of deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Shipment s WHERE s.trackingNumber IN :trackingNumbers ORDER BY s.id")
+    List<Shipment> lockByTrackingNumberIn(@Param("trackingNumbers") Collection<String> trackingNumbers);
     
+    // Every number in the range has the same length and only digits, so any collation orders them the same
+    @Query("SELECT max(s.trackingNumber) FROM Shipment s WHERE s.trackingNumber BETWEEN :from AND :to")
+    Optional<String> findLastTrackingNumberBetween(@Param("from") String from, @Param("to") String to);
+
     List<Shipment> findByUser(User user);
     
     @Query("SELECT s FROM Shipment s WHERE s.user = :user AND s.createdAt BETWEEN :startDate AND :endDate")
@@ -23,6 +59,58 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
-}
 
+    @Query("SELECT new com.usps.portal.dto.ShipmentSummary(s.id, s.trackingNumber, s.user.id, s.recipientName, " +
+           "s.recipientAddress, s.recipientCity, s.recipientState, s.recipientZipCode, s.status, s.createdAt, " +
+           "s.updatedAt, s.deliveredAt) FROM Shipment s " +
+           "WHERE s.user = :user AND s.createdAt BETWEEN :startDate AND :endDate")
+    Slice<ShipmentSummary> findSummariesByUserAndDateRange(
+        @Param("user") User user,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        Pageable pageable
+    );
+
+    @Query("SELECT new com.usps.portal.dto.ShipmentStatusCount(s.status, COUNT(s)) FROM Shipment s " +
+           "WHERE s.user = :user GROUP BY s.status")
+    List<ShipmentStatusCount> countByStatus(@Param("user") User user);
 
+    @Query("SELECT new com.usps.portal.dto.ShipmentStatusCount(s.status, COUNT(s)) FROM Shipment s " +
+           "WHERE s.user = :user AND s.createdAt BETWEEN :startDate AND :endDate GROUP BY s.status")
+    List<ShipmentStatusCount> countByStatusAndDateRange(
+        @Param("user") User user,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
+    @Query("SELECT new com.usps.portal.dto.ShipmentStatusCount(s.status, COUNT(s)) FROM Shipment s " +
+           "WHERE s.user = :user AND s.createdAt >= :from AND s.createdAt < :to GROUP BY s.status")
+    List<ShipmentStatusCount> countByStatusCreatedFromUntil(
+        @Param("user") User user,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.usps.portal.dto.ShipmentExportRow(s.trackingNumber, s.recipientName, s.recipientAddress, " +
+           "s.recipientCity, s.recipientState, s.recipientZipCode, s.status, s.createdAt, s.updatedAt, s.deliveredAt) " +
+           "FROM Shipment s WHERE s.user = :user AND s.createdAt BETWEEN :startDate AND :endDate ORDER BY s.createdAt")
+    Stream<ShipmentExportRow> streamExportRows(
+        @Param("user") User user,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "5000"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.trackingNumber FROM Shipment s")
+    Stream<String> streamAllTrackingNumbers();
+
+    @Query("SELECT s.trackingNumber FROM Shipment s WHERE s.createdAt >= :since")
+    List<String> findTrackingNumbersCreatedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,40 @@
+package com.usps.portal.repository;
+
+import com.usps.portal.dto.ShipmentCursor;
+import com.usps.portal.model.Shipment;
+import com.usps.portal.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class ShipmentSpecifications {
+
+    private ShipmentSpecifications() {
+    }
+
+    public static Specification<Shipment> ownedBy(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+
+    public static Specification<Shipment> hasStatus(Shipment.ShipmentStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Shipment> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Shipment> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    public static Specification<Shipment> after(ShipmentCursor cursor) {
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+            cb.and(
+                cb.equal(root.get("createdAt"), cursor.createdAt()),
+                cb.lessThan(root.get("id"), cursor.id())
+            )
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package com.usps.portal.repository;
+
+import com.usps.portal.dto.ShipmentSummary;
+import com.usps.portal.model.Shipment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ShipmentSummaryRepository {
+
+    List<ShipmentSummary> findSummaries(Specification<Shipment> spec, Sort sort, int limit);
+}
@@ -0,0 +1,46 @@
+package com.usps.portal.repository;
+
+import com.usps.portal.dto.ShipmentSummary;
+import com.usps.portal.model.Shipment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ShipmentSummaryRepositoryImpl implements ShipmentSummaryRepository {
+
+    private final EntityManager entityManager;
+
+    // Applies the same Specifications as the entity queries but selects only the summary columns
+    @Override
+    public List<ShipmentSummary> findSummaries(Specification<Shipment> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ShipmentSummary> query = cb.createQuery(ShipmentSummary.class);
+        Root<Shipment> root = query.from(Shipment.class);
+        query.select(cb.construct(ShipmentSummary.class,
+            root.get("id"),
+            root.get("trackingNumber"),
+            root.get("user").get("id"),
+            root.get("recipientName"),
+            root.get("recipientAddress"),
+            root.get("recipientCity"),
+            root.get("recipientState"),
+            root.get("recipientZipCode"),
+            root.get("status"),
+            root.get("createdAt"),
+            root.get("updatedAt"),
+            root.get("deliveredAt")));
+        query.where(spec.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.usps.portal.security;
+
+import com.usps.portal.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+public record AuthenticatedUser(Long id, String email, User.Role role) implements Principal {
+
+    public static AuthenticatedUser fromToken(VerifiedToken token) {
+        Object userId = token.claims().get(JwtService.CLAIM_USER_ID);
+        Object role = token.claims().get(JwtService.CLAIM_ROLE);
+        if (!(userId instanceof Number) || !(role instanceof String)) {
+            return null;
+        }
+        try {
+            return new AuthenticatedUser(((Number) userId).longValue(), token.subject(), User.Role.valueOf((String) role));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
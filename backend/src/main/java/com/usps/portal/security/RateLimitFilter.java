@@ -0,0 +1,113 @@
+package com.usps.portal.security;
+
+import com.usps.portal.config.RateLimitConfig.RateLimitPolicy;
+import com.usps.portal.config.RateLimitConfig.RateLimitService;
+import com.usps.portal.config.RateLimitProperties;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String REMAINING_HEADER = "X-Rate-Limit-Remaining";
+
+    private static final byte[] RATE_LIMITED_BODY =
+        "{\"error\":\"Rate limit exceeded. Please try again later.\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OVERLOADED_BODY =
+        "{\"error\":\"Server is busy. Please try again later.\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimitService rateLimitService;
+    private final boolean enabled;
+    private final Semaphore inFlight;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Counter> rateLimited = new ConcurrentHashMap<>();
+    private final Counter overloaded;
+
+    public RateLimitFilter(RateLimitService rateLimitService, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimitService = rateLimitService;
+        this.enabled = properties.isEnabled();
+        this.inFlight = properties.getMaxConcurrentRequests() > 0
+            ? new Semaphore(properties.getMaxConcurrentRequests())
+            : null;
+        this.meterRegistry = meterRegistry;
+        this.overloaded = rejectedCounter(meterRegistry, "max-concurrent-requests", "/**", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitPolicy policy = enabled ? rateLimitService.resolvePolicy(request.getServletPath()) : null;
+        if (policy != null) {
+            String key = rateLimitService.resolveKey(request);
+            ConsumptionProbe probe = rateLimitService.tryConsume(policy, key);
+            response.setHeader(REMAINING_HEADER, Long.toString(probe.getRemainingTokens()));
+            if (!probe.isConsumed()) {
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + 999_999_999L));
+                rateLimited.computeIfAbsent(policy.name(), name ->
+                    rejectedCounter(meterRegistry, name, policy.pattern(), HttpStatus.TOO_MANY_REQUESTS)).increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, RATE_LIMITED_BODY);
+                return;
+            }
+        }
+
+        if (inFlight == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            overloaded.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, OVERLOADED_BODY);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    // Tagged by policy and its route pattern rather than the request path, which would be one series per tracking number
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String policy, String route, HttpStatus status) {
+        return Counter.builder("rate.limit.rejected")
+            .description("Requests turned away before reaching a controller")
+            .tag("policy", policy)
+            .tag("route", route)
+            .tag("status", Integer.toString(status.value()))
+            .register(meterRegistry);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, byte[] body)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
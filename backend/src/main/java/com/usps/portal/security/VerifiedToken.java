@@ -0,0 +1,12 @@
+package com.usps.portal.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+public record VerifiedToken(String subject, Claims claims, Instant expiresAt) {
+
+    public boolean isExpired() {
+        return expiresAt == null || !expiresAt.isAfter(Instant.now());
+    }
+}
@@ -1,10 +1,14 @@
 package com.usps.portal.service;
 
+import com.usps.portal.dto.ShipmentStatusCount;
+import com.usps.portal.dto.ShipmentSummary;
 import com.usps.portal.model.Shipment;
 import com.usps.portal.model.User;
 import com.usps.portal.repository.ShipmentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -17,48 +21,51 @@ import java.util.Map;
 public class ReportService {
 
     private final ShipmentRepository shipmentRepository;
+    private final ShipmentRollupService rollupService;
 
     @Cacheable(value = "shipmentReports", key = "#user.id + '_' + #startDate + '_' + #endDate")
     public Map<String, Object> generateShipmentReport(User user, LocalDateTime startDate, LocalDateTime endDate) {
-        List<Shipment> shipments = shipmentRepository.findByUserAndDateRange(user, startDate, endDate);
+        Map<String, Long> statusCounts = toStatusCounts(rollupService.countByStatus(user, startDate, endDate));
+        long totalShipments = total(statusCounts);
         
         Map<String, Object> report = new HashMap<>();
-        report.put("totalShipments", shipments.size());
+        report.put("totalShipments", totalShipments);
         report.put("period", Map.of("start", startDate, "end", endDate));
-        
-        Map<String, Long> statusCounts = new HashMap<>();
-        for (Shipment.ShipmentStatus status : Shipment.ShipmentStatus.values()) {
-            statusCounts.put(status.name(), shipments.stream()
-                .filter(s -> s.getStatus() == status)
-                .count());
-        }
         report.put("statusCounts", statusCounts);
         
         long deliveredCount = statusCounts.getOrDefault("DELIVERED", 0L);
-        report.put("deliveryRate", shipments.isEmpty() ? 0.0 : 
-            (double) deliveredCount / shipments.size() * 100);
-        
-        report.put("shipments", shipments);
+        report.put("deliveryRate", totalShipments == 0 ? 0.0 :
+            (double) deliveredCount / totalShipments * 100);
         
         return report;
     }
 
+    public Slice<ShipmentSummary> findShipmentsInRange(User user, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        return shipmentRepository.findSummariesByUserAndDateRange(user, startDate, endDate, pageable);
+    }
+
     public Map<String, Object> generateUserStatistics(User user) {
-        List<Shipment> allShipments = shipmentRepository.findByUser(user);
+        Map<String, Long> statusCounts = toStatusCounts(rollupService.countByStatus(user));
         
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalShipments", allShipments.size());
-        
-        Map<String, Long> statusCounts = new HashMap<>();
-        for (Shipment.ShipmentStatus status : Shipment.ShipmentStatus.values()) {
-            statusCounts.put(status.name(), allShipments.stream()
-                .filter(s -> s.getStatus() == status)
-                .count());
-        }
+        stats.put("totalShipments", total(statusCounts));
         stats.put("statusCounts", statusCounts);
         
         return stats;
     }
-}
 
+    private Map<String, Long> toStatusCounts(List<ShipmentStatusCount> counts) {
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (Shipment.ShipmentStatus status : Shipment.ShipmentStatus.values()) {
+            statusCounts.put(status.name(), 0L);
+        }
+        for (ShipmentStatusCount count : counts) {
+            statusCounts.merge(count.status().name(), count.count(), Long::sum);
+        }
+        return statusCounts;
+    }
 
+    private long total(Map<String, Long> statusCounts) {
+        return statusCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
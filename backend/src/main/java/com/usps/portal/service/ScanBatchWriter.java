@@ -0,0 +1,87 @@
+package com.usps.portal.service;
+
+import com.usps.portal.dto.ScanEventRequest;
+import com.usps.portal.dto.TrackingUpdate;
+import com.usps.portal.model.Shipment;
+import com.usps.portal.model.TrackingEvent;
+import com.usps.portal.repository.ShipmentRepository;
+import com.usps.portal.repository.TrackingEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ScanBatchWriter {
+
+    private final ShipmentRepository shipmentRepository;
+    private final TrackingEventRepository trackingEventRepository;
+    private final ShipmentRollupService rollupService;
+
+    @Transactional
+    public Result write(List<ScanEventRequest> scans) {
+        Set<String> trackingNumbers = scans.stream()
+            .map(ScanEventRequest::getTrackingNumber)
+            .collect(Collectors.toSet());
+        Map<String, Shipment> shipments = shipmentRepository.lockByTrackingNumberIn(trackingNumbers).stream()
+            .collect(Collectors.toMap(Shipment::getTrackingNumber, Function.identity()));
+
+        List<ScanEventRequest> ordered = new ArrayList<>(scans);
+        ordered.sort(Comparator.comparing(ScanEventRequest::getEventTime));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TrackingEvent> events = new ArrayList<>(ordered.size());
+        List<TrackingUpdate> updates = new ArrayList<>(ordered.size());
+        Map<String, Shipment.ShipmentStatus> previousStatuses = new HashMap<>();
+        Set<String> touched = new HashSet<>();
+        Set<Long> owners = new HashSet<>();
+        int unmatched = 0;
+        for (ScanEventRequest scan : ordered) {
+            Shipment shipment = shipments.get(scan.getTrackingNumber());
+            if (shipment == null) {
+                unmatched++;
+                continue;
+            }
+            events.add(TrackingEvent.builder()
+                .shipment(shipment)
+                .location(scan.getLocation())
+                .description(scan.getDescription())
+                .eventTime(scan.getEventTime())
+                .createdAt(now)
+                .build());
+            touched.add(shipment.getTrackingNumber());
+
+            if (shipment.getStatus().canTransitionTo(scan.getStatus())) {
+                previousStatuses.putIfAbsent(shipment.getTrackingNumber(), shipment.getStatus());
+                shipment.setStatus(scan.getStatus());
+                shipment.setUpdatedAt(now);
+                if (scan.getStatus() == Shipment.ShipmentStatus.DELIVERED) {
+                    shipment.setDeliveredAt(scan.getEventTime());
+                }
+                owners.add(shipment.getUser().getId());
+            }
+            updates.add(TrackingUpdate.eventRecorded(shipment, events.get(events.size() - 1)));
+        }
+
+        // Events are inserted as JDBC batches; dirty shipments are updated in batches at flush
+        trackingEventRepository.saveAll(events);
+        previousStatuses.forEach((trackingNumber, previous) ->
+            rollupService.recordStatusChange(shipments.get(trackingNumber), previous));
+        return new Result(events.size(), unmatched, touched, owners, updates);
+    }
+
+    public record Result(int written, int unmatched, Set<String> trackingNumbers, Set<Long> userIds,
+                         List<TrackingUpdate> updates) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.usps.portal.service;
+
+import com.usps.portal.dto.ScanEventRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Keeps scans that already got a 202 but cannot be written, so they can be inspected and replayed
+@Service
+@RequiredArgsConstructor
+public class ScanDeadLetterWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO scan_dead_letters " +
+        "(tracking_number, location, description, event_time, status, error) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void write(List<ScanEventRequest> scans, Throwable cause) {
+        String error = NestedExceptionUtils.getMostSpecificCause(cause).toString();
+        jdbcTemplate.batchUpdate(INSERT_SQL, scans, scans.size(), (ps, scan) -> {
+            ps.setString(1, scan.getTrackingNumber());
+            ps.setString(2, scan.getLocation());
+            ps.setString(3, scan.getDescription());
+            ps.setObject(4, scan.getEventTime());
+            ps.setString(5, scan.getStatus() != null ? scan.getStatus().name() : null);
+            ps.setString(6, error);
+        });
+    }
+}
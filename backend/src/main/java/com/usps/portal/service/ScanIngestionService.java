@@ -0,0 +1,215 @@
+package com.usps.portal.service;
+
+import com.usps.portal.dto.ScanEventRequest;
+import com.usps.portal.realtime.TrackingUpdatePublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class ScanIngestionService {
+
+    private static final long RETRY_INITIAL_BACKOFF_MS = 100;
+    private static final long RETRY_MAX_BACKOFF_MS = 30_000;
+
+    private final ScanBatchWriter batchWriter;
+    private final ScanDeadLetterWriter deadLetters;
+    private final CacheManager cacheManager;
+    private final TrackingUpdatePublisher trackingUpdatePublisher;
+    private final BlockingQueue<ScanEventRequest> queue;
+    private final int batchSize;
+    private final Duration pollTimeout;
+    private final Object submitLock = new Object();
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter unmatched;
+    private final Counter failed;
+    private final Counter retries;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ScanIngestionService(ScanBatchWriter batchWriter,
+                                ScanDeadLetterWriter deadLetters,
+                                CacheManager cacheManager,
+                                TrackingUpdatePublisher trackingUpdatePublisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${scan-ingestion.queue-capacity:20000}") int queueCapacity,
+                                @Value("${scan-ingestion.batch-size:500}") int batchSize,
+                                @Value("${scan-ingestion.poll-timeout:200ms}") Duration pollTimeout) {
+        this.batchWriter = batchWriter;
+        this.deadLetters = deadLetters;
+        this.cacheManager = cacheManager;
+        this.trackingUpdatePublisher = trackingUpdatePublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+        meterRegistry.gaugeCollectionSize("scan.ingestion.queue.size", List.of(), queue);
+        this.accepted = scanCounter(meterRegistry, "accepted");
+        this.rejected = scanCounter(meterRegistry, "rejected");
+        this.written = scanCounter(meterRegistry, "written");
+        this.unmatched = scanCounter(meterRegistry, "unmatched");
+        this.failed = scanCounter(meterRegistry, "failed");
+        this.retries = Counter.builder("scan.ingestion.write.retries")
+            .description("Scan batch writes retried because the database was unreachable")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "scan-ingestion-writer");
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The writer drains whatever is still queued before exiting; if the database stays unreachable it is
+        // interrupted and logs the scans it could not write
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (writer.isAlive()) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public boolean submit(List<ScanEventRequest> scans) {
+        // All-or-nothing so a client can safely retry the whole request after a 503
+        synchronized (submitLock) {
+            if (!running || queue.remainingCapacity() < scans.size()) {
+                rejected.increment(scans.size());
+                return false;
+            }
+            queue.addAll(scans);
+        }
+        accepted.increment(scans.size());
+        return true;
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<ScanEventRequest> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ScanEventRequest first = queue.poll(pollTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                List<ScanEventRequest> unwritten = new ArrayList<>(batch);
+                queue.drainTo(unwritten);
+                log.error("Scan ingestion writer interrupted with {} scans unwritten", unwritten.size());
+                unwritten.forEach(scan -> log.error("Dropped tracking scan {}", scan));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ScanEventRequest> batch) throws InterruptedException {
+        ScanBatchWriter.Result result;
+        try {
+            result = retryWhileUnreachable(() -> batchWriter.write(batch));
+        } catch (RuntimeException e) {
+            splitOrDeadLetter(batch, e);
+            return;
+        }
+        written.increment(result.written());
+        unmatched.increment(result.unmatched());
+
+        // Evict after commit so readers cannot repopulate the caches with pre-batch data
+        Cache trackingViews = cacheManager.getCache(ShipmentService.TRACKING_VIEW_CACHE);
+        if (trackingViews != null) {
+            result.trackingNumbers().forEach(trackingViews::evict);
+        }
+        Cache userShipments = cacheManager.getCache("userShipments");
+        if (userShipments != null) {
+            result.userIds().forEach(userId -> userShipments.evict("first:" + userId));
+        }
+        trackingUpdatePublisher.publish(result.updates());
+    }
+
+    // One bad scan rolls back its whole batch, and every scan in it was already acknowledged. Halving isolates the
+    // bad ones so the rest are still written; a scan that fails on its own is dead-lettered.
+    private void splitOrDeadLetter(List<ScanEventRequest> batch, RuntimeException e) throws InterruptedException {
+        if (batch.size() > 1) {
+            int half = batch.size() / 2;
+            flush(batch.subList(0, half));
+            flush(batch.subList(half, batch.size()));
+            return;
+        }
+        failed.increment();
+        log.error("Failed to write tracking scan {}; dead-lettering it", batch.get(0), e);
+        try {
+            retryWhileUnreachable(() -> {
+                deadLetters.write(batch, e);
+                return null;
+            });
+        } catch (RuntimeException deadLetterFailure) {
+            log.error("Failed to dead-letter tracking scan; dropped {}", batch.get(0), deadLetterFailure);
+        }
+    }
+
+    // A connectivity failure says nothing about the scans, so the batch is held and retried until the database is
+    // back. Meanwhile the queue fills up and POST /api/scans sheds load with 503s instead of acknowledging scans
+    // that could not be kept.
+    private <T> T retryWhileUnreachable(Supplier<T> write) throws InterruptedException {
+        long backoff = RETRY_INITIAL_BACKOFF_MS;
+        while (true) {
+            try {
+                return write.get();
+            } catch (RuntimeException e) {
+                if (!isConnectivityFailure(e)) {
+                    throw e;
+                }
+                retries.increment();
+                log.warn("Database unreachable, retrying scan batch in {} ms: {}", backoff, e.toString());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, RETRY_MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private static boolean isConnectivityFailure(RuntimeException e) {
+        return e instanceof DataAccessResourceFailureException
+            || e instanceof CannotCreateTransactionException
+            || e instanceof TransientDataAccessException
+            || e instanceof RecoverableDataAccessException;
+    }
+
+    private static Counter scanCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("scan.ingestion.scans")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
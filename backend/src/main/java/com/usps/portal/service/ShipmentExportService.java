@@ -0,0 +1,132 @@
+package com.usps.portal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.usps.portal.dto.ShipmentExportRow;
+import com.usps.portal.model.User;
+import com.usps.portal.repository.ShipmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ShipmentExportService {
+
+    private static final String CSV_HEADER = "trackingNumber,recipientName,recipientAddress,recipientCity," +
+        "recipientState,recipientZipCode,status,createdAt,updatedAt,deliveredAt";
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final ShipmentRepository shipmentRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void export(User user, LocalDateTime startDate, LocalDateTime endDate, Format format, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<ShipmentExportRow> rows = shipmentRepository.streamExportRows(user, startDate, endDate)) {
+            int[] written = new int[1];
+            rows.forEach(row -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsv(writer, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                    if (++written[0] % FLUSH_EVERY_ROWS == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(Writer writer, ShipmentExportRow row) throws IOException {
+        writer.write(csv(row.trackingNumber()));
+        writer.write(',');
+        writer.write(csv(row.recipientName()));
+        writer.write(',');
+        writer.write(csv(row.recipientAddress()));
+        writer.write(',');
+        writer.write(csv(row.recipientCity()));
+        writer.write(',');
+        writer.write(csv(row.recipientState()));
+        writer.write(',');
+        writer.write(csv(row.recipientZipCode()));
+        writer.write(',');
+        writer.write(row.status().name());
+        writer.write(',');
+        writer.write(csv(row.createdAt()));
+        writer.write(',');
+        writer.write(csv(row.updatedAt()));
+        writer.write(',');
+        writer.write(csv(row.deliveredAt()));
+        writer.write('\n');
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Spreadsheets evaluate a cell starting with one of these as a formula; the quote keeps it text
+        if (!text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            return "\"'" + text.replace("\"", "\"\"") + '"';
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,33 @@
+package com.usps.portal.service;
+
+import com.usps.portal.repository.ShipmentDailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShipmentRollupBackfillJob implements ApplicationRunner {
+
+    private final ShipmentRollupService rollupService;
+    private final ShipmentDailyRollupRepository rollupRepository;
+
+    @Value("${rollups.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Cheap check first so a node joining a backfilled database does not touch the locks
+        if (!backfillOnStartup || rollupRepository.isBackfilled()) {
+            return;
+        }
+        Integer buckets = rollupService.backfillIfNeeded();
+        if (buckets != null) {
+            log.info("Backfilled {} shipment daily rollup buckets", buckets);
+        }
+    }
+}
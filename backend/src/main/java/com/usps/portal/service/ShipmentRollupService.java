@@ -0,0 +1,100 @@
+package com.usps.portal.service;
+
+import com.usps.portal.dto.ShipmentStatusCount;
+import com.usps.portal.model.Shipment;
+import com.usps.portal.model.ShipmentDailyRollup;
+import com.usps.portal.model.User;
+import com.usps.portal.repository.ShipmentDailyRollupRepository;
+import com.usps.portal.repository.ShipmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ShipmentRollupService {
+
+    private static final long BACKFILL_LOCK_KEY = 0x726f6c6c75707362L;
+
+    private final ShipmentDailyRollupRepository rollupRepository;
+    private final ShipmentRepository shipmentRepository;
+
+    @Transactional
+    public void recordCreated(List<Shipment> shipments) {
+        Map<ShipmentDailyRollup.Key, Long> deltas = new HashMap<>();
+        for (Shipment shipment : shipments) {
+            ShipmentDailyRollup.Key key = new ShipmentDailyRollup.Key(
+                shipment.getUser().getId(), shipment.getCreatedAt().toLocalDate(), shipment.getStatus());
+            deltas.merge(key, 1L, Long::sum);
+        }
+        deltas.forEach((key, delta) ->
+            rollupRepository.increment(key.getUserId(), key.getRollupDate(), key.getStatus().name(), delta));
+    }
+
+    @Transactional
+    public void recordStatusChange(Shipment shipment, Shipment.ShipmentStatus previousStatus) {
+        if (previousStatus == shipment.getStatus()) {
+            return;
+        }
+        increment(shipment, previousStatus, -1);
+        increment(shipment, shipment.getStatus(), 1);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ShipmentStatusCount> countByStatus(User user) {
+        return rollupRepository.sumByStatus(user.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ShipmentStatusCount> countByStatus(User user, LocalDateTime startDate, LocalDateTime endDate) {
+        // Whole days come from the rollups, partial edge days from shipments; statuses may repeat
+        LocalDate firstFullDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+            ? startDate.toLocalDate()
+            : startDate.toLocalDate().plusDays(1);
+        LocalDate lastPartialDay = endDate.toLocalDate();
+        if (!firstFullDay.isBefore(lastPartialDay)) {
+            return shipmentRepository.countByStatusAndDateRange(user, startDate, endDate);
+        }
+
+        List<ShipmentStatusCount> counts = new ArrayList<>();
+        if (startDate.isBefore(firstFullDay.atStartOfDay())) {
+            counts.addAll(shipmentRepository.countByStatusCreatedFromUntil(user, startDate, firstFullDay.atStartOfDay()));
+        }
+        counts.addAll(rollupRepository.sumByStatusAndDays(user.getId(), firstFullDay, lastPartialDay));
+        counts.addAll(shipmentRepository.countByStatusAndDateRange(user, lastPartialDay.atStartOfDay(), endDate));
+        return counts;
+    }
+
+    // Runs once per database, recorded in shipment_rollup_backfills: rollup rows alone do not mean a backfill ran,
+    // since a node may have counted new shipments first. Whatever rows exist are replaced by a rebuild under the
+    // shipments lock, so no creation or status change commits its increment in between. The advisory lock lets one
+    // of several starting nodes rebuild while the others skip.
+    @Transactional
+    public Integer backfillIfNeeded() {
+        if (!rollupRepository.tryAdvisoryXactLock(BACKFILL_LOCK_KEY) || rollupRepository.isBackfilled()) {
+            return null;
+        }
+        rollupRepository.lockShipments();
+        rollupRepository.deleteAllRollups();
+        int buckets = rollupRepository.rebuildFromShipments();
+        rollupRepository.markBackfilled(buckets);
+        return buckets;
+    }
+
+    private void increment(Shipment shipment, Shipment.ShipmentStatus status, long delta) {
+        rollupRepository.increment(
+            shipment.getUser().getId(),
+            shipment.getCreatedAt().toLocalDate(),
+            status.name(),
+            delta
+        );
+    }
+}
@@ -1,78 +1,107 @@
 package com.usps.portal.service;
 
+import com.usps.portal.cache.BulkCacheOperations;
+import com.usps.portal.dto.ShipmentCursor;
+import com.usps.portal.dto.ShipmentPage;
+import com.usps.portal.dto.ShipmentQuery;
+import com.usps.portal.dto.ShipmentSummary;
+import com.usps.portal.dto.TrackingUpdate;
+import com.usps.portal.dto.TrackingView;
 import com.usps.portal.model.Shipment;
 import com.usps.portal.model.TrackingEvent;
 import com.usps.portal.model.User;
+import com.usps.portal.realtime.TrackingUpdatePublisher;
 import com.usps.portal.repository.ShipmentRepository;
+import com.usps.portal.repository.ShipmentSpecifications;
 import com.usps.portal.repository.TrackingEventRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class ShipmentService {
 
+    public static final String TRACKING_VIEW_CACHE = "trackingView";
+
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     private final ShipmentRepository shipmentRepository;
     private final TrackingEventRepository trackingEventRepository;
+    private final TrackingEventArchive trackingEventArchive;
+    private final ShipmentRollupService rollupService;
+    private final BulkCacheOperations bulkCache;
+    private final TrackingUpdatePublisher trackingUpdatePublisher;
+    private final TrackingNumberGenerator trackingNumberGenerator;
+    private final TrackingNumberFilter trackingNumberFilter;
 
-    @Transactional(readOnly = true)
-    public Shipment findByTrackingNumber(String trackingNumber) {
-        Optional<Shipment> shipmentOpt = shipmentRepository.findByTrackingNumber(trackingNumber);
-        if (shipmentOpt.isEmpty()) {
+    @Cacheable(value = TRACKING_VIEW_CACHE, key = "#trackingNumber")
+    public TrackingView findTrackingView(String trackingNumber) {
+        TrackingView view = trackingEventArchive.withArchivedEvents(
+            TrackingView.fromRows(shipmentRepository.findTrackingViewRows(List.of(trackingNumber))))
+            .get(trackingNumber);
+        if (view == null) {
+            trackingNumberFilter.recordFalsePositive();
             throw new RuntimeException("Shipment not found: " + trackingNumber);
         }
-        Shipment shipment = shipmentOpt.get();
-        // Eagerly fetch user to avoid lazy loading issues
-        shipment.getUser().getId();
-        return shipment;
+        return view;
     }
 
-    @Cacheable(value = "userShipments", key = "#user.id")
-    @Transactional(readOnly = true)
-    public List<Shipment> findByUser(User user) {
-        List<Shipment> shipments = shipmentRepository.findByUser(user);
-        // Eagerly fetch user for each shipment to avoid lazy loading issues
-        shipments.forEach(s -> s.getUser().getId());
-        return shipments;
+    @Cacheable(value = "userShipments", key = "'first:' + #user.id", condition = "#query.isDefaultFirstPage()")
+    public ShipmentPage findByUser(User user, ShipmentQuery query) {
+        Specification<Shipment> spec = ShipmentSpecifications.ownedBy(user);
+        if (query.status() != null) {
+            spec = spec.and(ShipmentSpecifications.hasStatus(query.status()));
+        }
+        if (query.from() != null) {
+            spec = spec.and(ShipmentSpecifications.createdFrom(query.from()));
+        }
+        if (query.to() != null) {
+            spec = spec.and(ShipmentSpecifications.createdBefore(query.to()));
+        }
+        if (query.cursor() != null) {
+            spec = spec.and(ShipmentSpecifications.after(query.cursor()));
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<ShipmentSummary> rows = shipmentRepository.findSummaries(spec, KEYSET_ORDER, query.limit() + 1);
+        boolean hasNext = rows.size() > query.limit();
+        List<ShipmentSummary> shipments = hasNext ? new ArrayList<>(rows.subList(0, query.limit())) : rows;
+
+        String nextCursor = hasNext ? ShipmentCursor.of(shipments.get(shipments.size() - 1)).encode() : null;
+        return new ShipmentPage(shipments, nextCursor);
     }
 
     @Transactional
-    @CacheEvict(value = "userShipments", key = "#user.id", allEntries = false)
+    @CacheEvict(value = "userShipments", key = "'first:' + #user.id")
     public Shipment createShipment(User user, Shipment shipment) {
-        shipment.setUser(user);
-        String trackingNumber = generateTrackingNumber();
-        shipment.setTrackingNumber(trackingNumber);
-        shipment.setStatus(Shipment.ShipmentStatus.PENDING);
-        shipment.setCreatedAt(LocalDateTime.now());
-        shipment.setUpdatedAt(LocalDateTime.now());
-        
-        Shipment saved = shipmentRepository.saveAndFlush(shipment);
-        
-        // Create initial tracking event
-        TrackingEvent initialEvent = TrackingEvent.builder()
-            .shipment(saved)
-            .location("Origin Facility")
-            .description("Shipment created and pending pickup")
-            .eventTime(LocalDateTime.now())
-            .createdAt(LocalDateTime.now())
-            .build();
-        trackingEventRepository.saveAndFlush(initialEvent);
-        
-        return saved;
+        return persistNewShipments(user, List.of(shipment)).get(0);
     }
 
     @Transactional
+    @CacheEvict(value = "userShipments", key = "'first:' + #user.id")
+    public List<Shipment> createShipments(User user, List<Shipment> shipments) {
+        return persistNewShipments(user, shipments);
+    }
+
+    @Transactional
+    @CacheEvict(value = TRACKING_VIEW_CACHE, key = "#trackingNumber")
     public Shipment updateShipmentStatus(String trackingNumber, Shipment.ShipmentStatus status) {
-        Shipment shipment = findByTrackingNumber(trackingNumber);
+        Shipment shipment = shipmentRepository.lockByTrackingNumber(trackingNumber)
+            .orElseThrow(() -> new RuntimeException("Shipment not found: " + trackingNumber));
+        Shipment.ShipmentStatus previousStatus = shipment.getStatus();
         shipment.setStatus(status);
         shipment.setUpdatedAt(LocalDateTime.now());
         
@@ -80,17 +109,65 @@ public class ShipmentService {
             shipment.setDeliveredAt(LocalDateTime.now());
         }
         
-        return shipmentRepository.save(shipment);
+        Shipment saved = shipmentRepository.save(shipment);
+        rollupService.recordStatusChange(saved, previousStatus);
+        trackingUpdatePublisher.publish(List.of(TrackingUpdate.statusChanged(saved)));
+        return saved;
     }
 
-    @Cacheable(value = "trackingEvents", key = "#trackingNumber")
-    public List<TrackingEvent> getTrackingEvents(String trackingNumber) {
-        Shipment shipment = findByTrackingNumber(trackingNumber);
-        return trackingEventRepository.findByShipmentOrderByEventTimeDesc(shipment);
+    // Keyed by tracking number; numbers that do not exist are absent from the result
+    public Map<String, TrackingView> findTrackingViews(Collection<String> trackingNumbers) {
+        List<String> candidates = trackingNumbers.stream().filter(trackingNumberFilter::mightContain).toList();
+        if (candidates.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<String, TrackingView> views = bulkCache.getAll(TRACKING_VIEW_CACHE, candidates, TrackingView.class);
+        List<String> misses = candidates.stream()
+            .filter(trackingNumber -> !views.containsKey(trackingNumber))
+            .toList();
+        if (misses.isEmpty()) {
+            return views;
+        }
+
+        Map<String, TrackingView> loaded = trackingEventArchive.withArchivedEvents(
+            TrackingView.fromRows(shipmentRepository.findTrackingViewRows(misses)));
+        for (int i = loaded.size(); i < misses.size(); i++) {
+            trackingNumberFilter.recordFalsePositive();
+        }
+        if (loaded.isEmpty()) {
+            return views;
+        }
+        bulkCache.putAll(TRACKING_VIEW_CACHE, loaded);
+        views.putAll(loaded);
+        return views;
     }
 
-    private String generateTrackingNumber() {
-        return "USPS" + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
+    private List<Shipment> persistNewShipments(User user, List<Shipment> shipments) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TrackingEvent> initialEvents = new ArrayList<>(shipments.size());
+        for (Shipment shipment : shipments) {
+            shipment.setUser(user);
+            shipment.setTrackingNumber(trackingNumberGenerator.next());
+            shipment.setStatus(Shipment.ShipmentStatus.PENDING);
+            shipment.setCreatedAt(now);
+            shipment.setUpdatedAt(now);
+            
+            // Create initial tracking event
+            initialEvents.add(TrackingEvent.builder()
+                .shipment(shipment)
+                .location("Origin Facility")
+                .description("Shipment created and pending pickup")
+                .eventTime(now)
+                .createdAt(now)
+                .build());
+        }
+        
+        // Sequence-assigned ids let Hibernate send both inserts as JDBC batches at flush time
+        List<Shipment> saved = shipmentRepository.saveAll(shipments);
+        trackingEventRepository.saveAll(initialEvents);
+        trackingNumberFilter.addAll(saved.stream().map(Shipment::getTrackingNumber).toList());
+        rollupService.recordCreated(saved);
+        return saved;
     }
 }
 
@@ -0,0 +1,474 @@
+package com.usps.portal.service;
+
+import com.usps.portal.cache.BloomFilter;
+import com.usps.portal.config.TrackingEventStorageProperties;
+import com.usps.portal.dto.TrackingEventView;
+import com.usps.portal.dto.TrackingView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Archived tracking events of delivered shipments, one pair of files per archiving run:
+//   <name>.tsv.gz  rows sorted by tracking number, newest event first, written as independent gzip members
+//                  (blocks) so one shipment is read without inflating the whole file; zcat reads it as a whole
+//   <name>.idx     shipments delivered before which the rows were archived, event time range, a Bloom filter
+//                  of the tracking numbers and the first tracking number and byte range of every block
+// The index is moved into place last, so a visible index always has its data file. The loaded indexes are cached;
+// archives published by this node show up at once, those of other nodes after at most the refresh interval.
+@Slf4j
+@Service
+public class TrackingEventArchive {
+
+    private static final int INDEX_MAGIC = 0x54454131; // "TEA1"
+    private static final String DATA_SUFFIX = ".tsv.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+    private final Path directory;
+    private final int blockSize;
+    private final long refreshIntervalNanos;
+
+    private volatile Snapshot snapshot;
+
+    public TrackingEventArchive(TrackingEventStorageProperties properties) {
+        this.directory = Path.of(properties.getRetention().getArchiveDirectory());
+        this.blockSize = Math.toIntExact(properties.getRetention().getBlockSize().toBytes());
+        this.refreshIntervalNanos = properties.getRetention().getRefreshInterval().toNanos();
+        this.snapshot = new Snapshot(null, System.nanoTime() - refreshIntervalNanos, Map.of());
+    }
+
+    // Adds archived events to views of shipments whose history may have been archived; views are replaced in place
+    public Map<String, TrackingView> withArchivedEvents(Map<String, TrackingView> views) {
+        if (views.values().stream().allMatch(view -> view.deliveredAt() == null)) {
+            return views;
+        }
+        Snapshot current = current();
+        if (current.indexes().isEmpty()) {
+            return views;
+        }
+        for (Map.Entry<String, TrackingView> entry : views.entrySet()) {
+            TrackingView view = entry.getValue();
+            if (view.deliveredAt() == null) {
+                continue;
+            }
+            List<TrackingEventView> archived = new ArrayList<>();
+            for (ArchiveIndex index : current.indexes().values()) {
+                if (index.mightContain(view)) {
+                    archived.addAll(index.read(view.trackingNumber()));
+                }
+            }
+            if (archived.isEmpty()) {
+                continue;
+            }
+            // An archive restored by hand may hold events that are live again
+            Set<TrackingEventView> merged = new LinkedHashSet<>(view.events());
+            merged.addAll(archived);
+            List<TrackingEventView> events = new ArrayList<>(merged);
+            events.sort(Comparator.comparing(TrackingEventView::eventTime).reversed());
+            entry.setValue(view.withEvents(events));
+        }
+        return views;
+    }
+
+    // Rows must be added in tracking number order (byte order, i.e. COLLATE "C"), newest event first per shipment
+    public Writer newWriter(String name, LocalDateTime deliveredBefore) {
+        try {
+            Files.createDirectories(directory);
+            return new Writer(name, deliveredBefore);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot loaded = snapshot;
+        if (System.nanoTime() - loaded.checkedAt() < refreshIntervalNanos) {
+            return loaded;
+        }
+        return refresh();
+    }
+
+    private synchronized Snapshot refresh() {
+        Snapshot loaded = snapshot;
+        long now = System.nanoTime();
+        if (now - loaded.checkedAt() < refreshIntervalNanos) {
+            return loaded;
+        }
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(directory);
+        } catch (NoSuchFileException e) {
+            snapshot = new Snapshot(null, now, loaded.indexes());
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (modified.equals(loaded.directoryModified())) {
+            snapshot = new Snapshot(modified, now, loaded.indexes());
+            return snapshot;
+        }
+        Map<String, ArchiveIndex> indexes = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + INDEX_SUFFIX)) {
+            for (Path file : files) {
+                // A retried run replaces its files under the same name
+                String name = file.getFileName().toString();
+                FileTime indexModified = Files.getLastModifiedTime(file);
+                ArchiveIndex index = loaded.indexes().get(name);
+                if (index == null || !index.modified().equals(indexModified)) {
+                    index = ArchiveIndex.load(file, indexModified, dataFileFor(file));
+                }
+                indexes.put(name, index);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Loaded {} tracking event archive indexes from {}", indexes.size(), directory);
+        snapshot = new Snapshot(modified, now, Map.copyOf(indexes));
+        return snapshot;
+    }
+
+    // The directory time is left alone, so the next refresh still picks up files other nodes published meanwhile
+    private synchronized void published(Path indexFile) throws IOException {
+        Snapshot loaded = snapshot;
+        Map<String, ArchiveIndex> indexes = new HashMap<>(loaded.indexes());
+        indexes.put(indexFile.getFileName().toString(),
+            ArchiveIndex.load(indexFile, Files.getLastModifiedTime(indexFile), dataFileFor(indexFile)));
+        snapshot = new Snapshot(loaded.directoryModified(), loaded.checkedAt(), Map.copyOf(indexes));
+    }
+
+    private static Path dataFileFor(Path indexFile) {
+        String name = indexFile.getFileName().toString();
+        return indexFile.resolveSibling(name.substring(0, name.length() - INDEX_SUFFIX.length()) + DATA_SUFFIX);
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0 && value.indexOf('\\') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fromEpochSeconds(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    public record ArchivedEvent(long id, long shipmentId, String trackingNumber, String location, String description,
+                                LocalDateTime eventTime, LocalDateTime createdAt) {
+
+        // Columns: tracking number, event time, location, description, shipment id, event id, created at
+        String toLine() {
+            return trackingNumber + '\t' + eventTime + '\t' + escape(location) + '\t' + escape(description) + '\t'
+                + shipmentId + '\t' + id + '\t' + createdAt + '\n';
+        }
+    }
+
+    private record Snapshot(FileTime directoryModified, long checkedAt, Map<String, ArchiveIndex> indexes) {
+    }
+
+    private record ArchiveIndex(Path dataFile, FileTime modified, LocalDateTime deliveredBefore,
+                                LocalDateTime minEventTime, LocalDateTime maxEventTime, BloomFilter trackingNumbers,
+                                String[] firstKeys, long[] offsets, int[] lengths) {
+
+        static ArchiveIndex load(Path indexFile, FileTime modified, Path dataFile) throws IOException {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(indexFile)))) {
+                if (in.readInt() != INDEX_MAGIC) {
+                    throw new IOException("Not a tracking event archive index: " + indexFile);
+                }
+                LocalDateTime deliveredBefore = fromEpochSeconds(in.readLong());
+                LocalDateTime minEventTime = fromEpochSeconds(in.readLong());
+                LocalDateTime maxEventTime = fromEpochSeconds(in.readLong());
+                BloomFilter filter = new BloomFilter(in.readLong(), in.readInt());
+                byte[] bits = new byte[in.readInt()];
+                in.readFully(bits);
+                filter.merge(bits);
+                int blockCount = in.readInt();
+                String[] firstKeys = new String[blockCount];
+                long[] offsets = new long[blockCount];
+                int[] lengths = new int[blockCount];
+                for (int i = 0; i < blockCount; i++) {
+                    firstKeys[i] = in.readUTF();
+                    offsets[i] = in.readLong();
+                    lengths[i] = in.readInt();
+                }
+                return new ArchiveIndex(dataFile, modified, deliveredBefore, minEventTime, maxEventTime, filter,
+                    firstKeys, offsets, lengths);
+            }
+        }
+
+        // Events are never recorded before their shipment, except for a little scanner clock skew
+        boolean mightContain(TrackingView view) {
+            return view.deliveredAt().isBefore(deliveredBefore)
+                && !maxEventTime.isBefore(view.createdAt().minusDays(1))
+                && trackingNumbers.mightContain(view.trackingNumber());
+        }
+
+        List<TrackingEventView> read(String trackingNumber) {
+            int block = Arrays.binarySearch(firstKeys, trackingNumber);
+            if (block < 0) {
+                block = -block - 2;
+            }
+            if (block < 0) {
+                return List.of();
+            }
+            List<TrackingEventView> events = new ArrayList<>();
+            try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+                ByteBuffer compressed = ByteBuffer.allocate(lengths[block]);
+                while (compressed.hasRemaining()) {
+                    if (channel.read(compressed, offsets[block] + compressed.position()) < 0) {
+                        throw new IOException("Truncated tracking event archive: " + dataFile);
+                    }
+                }
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(new ByteArrayInputStream(compressed.array())), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        int order = line.substring(0, line.indexOf('\t')).compareTo(trackingNumber);
+                        if (order > 0) {
+                            break;
+                        }
+                        if (order == 0) {
+                            String[] columns = line.split("\t", -1);
+                            events.add(new TrackingEventView(unescape(columns[2]), unescape(columns[3]),
+                                LocalDateTime.parse(columns[1])));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return events;
+        }
+    }
+
+    public class Writer {
+
+        private final Path dataFile;
+        private final Path indexFile;
+        private final Path tempDataFile;
+        private final Path tempIndexFile;
+        private final LocalDateTime deliveredBefore;
+        private final FileChannel channel;
+        private final OutputStream out;
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private final List<String> firstKeys = new ArrayList<>();
+        private final List<Long> offsets = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+
+        private String blockFirstKey;
+        private String lastKey;
+        private long shipmentCount;
+        private int eventCount;
+        private LocalDateTime minEventTime;
+        private LocalDateTime maxEventTime;
+        private boolean stranded;
+
+        private Writer(String name, LocalDateTime deliveredBefore) throws IOException {
+            this.dataFile = directory.resolve(name + DATA_SUFFIX);
+            this.indexFile = directory.resolve(name + INDEX_SUFFIX);
+            this.tempDataFile = directory.resolve(name + DATA_SUFFIX + TEMP_SUFFIX);
+            this.tempIndexFile = directory.resolve(name + INDEX_SUFFIX + TEMP_SUFFIX);
+            this.deliveredBefore = deliveredBefore;
+            this.channel = FileChannel.open(tempDataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = Channels.newOutputStream(channel);
+        }
+
+        public void add(ArchivedEvent event) {
+            try {
+                if (!event.trackingNumber().equals(lastKey)) {
+                    // Blocks only end between shipments, so a lookup never spans two of them
+                    if (block.size() >= blockSize) {
+                        flushBlock();
+                    }
+                    if (blockFirstKey == null) {
+                        blockFirstKey = event.trackingNumber();
+                    }
+                    lastKey = event.trackingNumber();
+                    shipmentCount++;
+                }
+                block.write(event.toLine().getBytes(StandardCharsets.UTF_8));
+                eventCount++;
+                if (minEventTime == null || event.eventTime().isBefore(minEventTime)) {
+                    minEventTime = event.eventTime();
+                }
+                if (maxEventTime == null || event.eventTime().isAfter(maxEventTime)) {
+                    maxEventTime = event.eventTime();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public int eventCount() {
+            return eventCount;
+        }
+
+        // Writes the archive to disk under temporary names; the rows may leave Postgres once this returns
+        public void prepare() {
+            try {
+                flushBlock();
+                channel.force(true);
+                out.close();
+                writeIndex();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Makes a prepared archive visible to readers, once the rows it holds are gone from Postgres
+        public void publish() {
+            try {
+                Files.move(tempDataFile, dataFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tempIndexFile, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                published(indexFile);
+            } catch (IOException e) {
+                stranded = Files.exists(tempIndexFile);
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // A prepared archive whose rows are already gone is the only copy left, so it is never deleted
+        public void discard() {
+            try {
+                out.close();
+                if (stranded) {
+                    log.error("Tracking event archive {} could not be published; move {} and {} into place by hand",
+                        dataFile, tempDataFile, tempIndexFile);
+                    return;
+                }
+                Files.deleteIfExists(tempIndexFile);
+                Files.deleteIfExists(tempDataFile);
+            } catch (IOException e) {
+                log.warn("Failed to remove tracking event archive {}", dataFile, e);
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (block.size() == 0) {
+                return;
+            }
+            long offset = channel.position();
+            GZIPOutputStream gzip = new GZIPOutputStream(new NonClosingOutputStream(out), 8192);
+            block.writeTo(gzip);
+            gzip.close();
+            firstKeys.add(blockFirstKey);
+            offsets.add(offset);
+            lengths.add(Math.toIntExact(channel.position() - offset));
+            block.reset();
+            blockFirstKey = null;
+        }
+
+        private void writeIndex() throws IOException {
+            // Sized once the shipment count is known, so the data file is read back to fill it
+            BloomFilter filter = BloomFilter.create(Math.max(1, shipmentCount), BLOOM_FALSE_POSITIVE_RATE);
+            if (eventCount > 0) {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(tempDataFile));
+                     BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        filter.put(line.substring(0, line.indexOf('\t')));
+                    }
+                }
+            }
+            byte[] bits = filter.toBytes();
+            try (FileChannel indexChannel = FileChannel.open(tempIndexFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream index = new DataOutputStream(Channels.newOutputStream(indexChannel))) {
+                index.writeInt(INDEX_MAGIC);
+                index.writeLong(epochSeconds(deliveredBefore));
+                index.writeLong(epochSeconds(minEventTime != null ? minEventTime : deliveredBefore));
+                index.writeLong(epochSeconds(maxEventTime != null ? maxEventTime : deliveredBefore));
+                index.writeLong(filter.bitCount());
+                index.writeInt(filter.hashCount());
+                index.writeInt(bits.length);
+                index.write(bits);
+                index.writeInt(firstKeys.size());
+                for (int i = 0; i < firstKeys.size(); i++) {
+                    index.writeUTF(firstKeys.get(i));
+                    index.writeLong(offsets.get(i));
+                    index.writeInt(lengths.get(i));
+                }
+                index.flush();
+                indexChannel.force(true);
+            }
+        }
+    }
+
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.usps.portal.service;
+
+import com.usps.portal.config.TrackingEventStorageProperties;
+import com.usps.portal.model.TrackingEventLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Folds the tracking_events rows of shipments delivered more than the grace period ago into shipments.eventLog
+// and deletes them. SKIP LOCKED lets every node run it on disjoint batches. Scans that arrive after compaction
+// stay as rows and are merged with the log when read. Past the retention horizon TrackingEventPartitionMaintenance
+// moves the log itself to the archive.
+@Slf4j
+@Service
+public class TrackingEventCompactionJob {
+
+    private static final String SELECT_BATCH =
+        "SELECT id FROM shipments WHERE status = 'DELIVERED' AND event_log IS NULL AND delivered_at < ? " +
+        "ORDER BY delivered_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String SELECT_EVENTS =
+        "SELECT id, shipment_id, location, description, event_time, created_at FROM tracking_events " +
+        "WHERE shipment_id = ANY (?)";
+    // Only the rows that were folded: a scan committed meanwhile must survive
+    private static final String DELETE_EVENTS =
+        "DELETE FROM tracking_events WHERE shipment_id = ANY (?) AND id = ANY (?)";
+
+    private final TrackingEventStorageProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler;
+
+    public TrackingEventCompactionJob(TrackingEventStorageProperties properties,
+                                      DataSource dataSource,
+                                      PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracking-event-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.getCompaction().isEnabled()) {
+            return;
+        }
+        long interval = properties.getCompaction().getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::compactAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public void compactAll() {
+        try {
+            LocalDateTime deliveredBefore = LocalDateTime.now().minus(properties.getCompaction().getGracePeriod());
+            long shipments = 0;
+            long events = 0;
+            int batchSize = properties.getCompaction().getBatchSize();
+            while (!Thread.currentThread().isInterrupted()) {
+                BatchResult batch = compactBatch(deliveredBefore, batchSize);
+                shipments += batch.shipments();
+                events += batch.events();
+                if (batch.shipments() < batchSize) {
+                    break;
+                }
+            }
+            if (shipments > 0) {
+                log.info("Compacted {} tracking events of {} delivered shipments", events, shipments);
+            }
+        } catch (RuntimeException e) {
+            log.error("Tracking event compaction failed", e);
+        }
+    }
+
+    public BatchResult compactBatch(LocalDateTime deliveredBefore, int batchSize) {
+        return transactionTemplate.execute(status -> {
+            List<Long> shipmentIds = jdbcTemplate.queryForList(SELECT_BATCH, Long.class, deliveredBefore, batchSize);
+            if (shipmentIds.isEmpty()) {
+                return new BatchResult(0, 0);
+            }
+            Long[] shipmentIdArray = shipmentIds.toArray(new Long[0]);
+
+            Map<Long, List<TrackingEventLog.Entry>> histories = new HashMap<>();
+            shipmentIds.forEach(id -> histories.put(id, new ArrayList<>()));
+            List<Long> eventIds = new ArrayList<>();
+            jdbcTemplate.query(SELECT_EVENTS, rs -> {
+                eventIds.add(rs.getLong("id"));
+                histories.get(rs.getLong("shipment_id")).add(new TrackingEventLog.Entry(
+                    rs.getString("location"),
+                    rs.getString("description"),
+                    rs.getTimestamp("event_time").toLocalDateTime(),
+                    rs.getTimestamp("created_at").toLocalDateTime()));
+            }, (Object) shipmentIdArray);
+
+            List<Object[]> updates = new ArrayList<>(histories.size());
+            histories.forEach((id, entries) -> updates.add(new Object[]{TrackingEventLog.encode(entries), id}));
+            jdbcTemplate.batchUpdate("UPDATE shipments SET event_log = ? WHERE id = ?", updates);
+            if (!eventIds.isEmpty()) {
+                jdbcTemplate.update(DELETE_EVENTS, shipmentIdArray, eventIds.toArray(new Long[0]));
+            }
+            return new BatchResult(shipmentIds.size(), eventIds.size());
+        });
+    }
+
+    public record BatchResult(int shipments, int events) {
+    }
+}
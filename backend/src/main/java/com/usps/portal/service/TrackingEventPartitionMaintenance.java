@@ -0,0 +1,274 @@
+package com.usps.portal.service;
+
+import com.usps.portal.config.TrackingEventStorageProperties;
+import com.usps.portal.model.TrackingEventLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Keeps monthly tracking_events partitions created ahead of time and moves the events of shipments delivered
+// before the retention horizon out to the TrackingEventArchive: whole monthly partitions once they are past the
+// horizon, leftovers from the default partition, and the histories TrackingEventCompactionJob folded into
+// shipments.eventLog, which is most of them. Runs on every node; an advisory lock lets one do the work.
+@Slf4j
+@Service
+public class TrackingEventPartitionMaintenance {
+
+    private static final long ADVISORY_LOCK_KEY = 0x74726b5f65767473L;
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("tracking_events_(\\d{4})_(\\d{2})");
+    private static final String DEFAULT_PARTITION = "tracking_events_default";
+    private static final DateTimeFormatter SWEEP_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    // Byte-order collation so the archive's sort order matches String.compareTo
+    private static final String EXPORT_SQL =
+        "SELECT e.id, e.shipment_id, s.tracking_number, e.location, e.description, e.event_time, e.created_at " +
+        "FROM %s e JOIN shipments s ON s.id = e.shipment_id " +
+        "WHERE s.status = 'DELIVERED' AND s.delivered_at < ?%s " +
+        "ORDER BY s.tracking_number COLLATE \"C\", e.event_time DESC";
+    // Matches the predicate of idx_shipments_archivable_event_log, so the literal must stay in step with it
+    private static final byte[] ARCHIVED_EVENT_LOG = TrackingEventLog.encode(List.of());
+    private static final String EXPORT_EVENT_LOGS_SQL =
+        "SELECT id, tracking_number, event_log FROM shipments " +
+        "WHERE status = 'DELIVERED' AND delivered_at < ? AND event_log IS NOT NULL " +
+        "AND event_log <> '\\x" + HexFormat.of().formatHex(ARCHIVED_EVENT_LOG) + "'::bytea " +
+        "ORDER BY tracking_number COLLATE \"C\" FOR UPDATE";
+
+    private final TrackingEventStorageProperties properties;
+    private final TrackingEventArchive archive;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler;
+
+    public TrackingEventPartitionMaintenance(TrackingEventStorageProperties properties,
+                                             TrackingEventArchive archive,
+                                             DataSource dataSource,
+                                             PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.archive = archive;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(5000);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracking-event-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getMaintenanceInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::runMaintenance, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public void runMaintenance() {
+        try {
+            int created = createPartitions();
+            if (created > 0) {
+                log.info("Created {} tracking_events partitions", created);
+            }
+            if (properties.getRetention().isEnabled()) {
+                archiveExpired();
+            }
+        } catch (RuntimeException e) {
+            log.error("tracking_events partition maintenance failed", e);
+        }
+    }
+
+    public int createPartitions() {
+        YearMonth current = YearMonth.now();
+        Integer created = transactionTemplate.execute(status -> {
+            if (!tryLock()) {
+                return 0;
+            }
+            int count = 0;
+            for (int i = 0; i <= properties.getPartitionMonthsAhead(); i++) {
+                Boolean partitionCreated = jdbcTemplate.queryForObject(
+                    "SELECT create_tracking_events_partition(?)", Boolean.class, current.plusMonths(i).atDay(1));
+                if (Boolean.TRUE.equals(partitionCreated)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        return created != null ? created : 0;
+    }
+
+    public void archiveExpired() {
+        LocalDateTime cutoff = LocalDate.now().minus(properties.getRetention().getHorizon()).atStartOfDay();
+        for (String partition : attachedPartitions()) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                archivePartition(partition, month, cutoff);
+            }
+        }
+        archiveDefaultPartition(cutoff);
+        archiveEventLogs(cutoff);
+    }
+
+    // Partition names come from the catalog and match MONTHLY_PARTITION, so they are safe to splice into SQL
+    private void archivePartition(String partition, YearMonth month, LocalDateTime cutoff) {
+        TrackingEventArchive.Writer writer = archive.newWriter("tracking-events-" + month, cutoff);
+        try {
+            Integer retained = transactionTemplate.execute(status -> {
+                if (!tryLock()) {
+                    return null;
+                }
+                // Writes into an old month are rare; holding them off keeps the export and the drop consistent
+                jdbcTemplate.execute("LOCK TABLE " + partition + " IN SHARE MODE");
+                jdbcTemplate.query(EXPORT_SQL.formatted(partition, ""), exportTo(writer), cutoff);
+                if (writer.eventCount() > 0) {
+                    publishAfterCommit(writer);
+                }
+                jdbcTemplate.execute("ALTER TABLE tracking_events DETACH PARTITION " + partition);
+                // Events of shipments that are not archivable yet fall into the default partition
+                int moved = jdbcTemplate.update("INSERT INTO tracking_events SELECT e.* FROM " + partition + " e " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM shipments s WHERE s.id = e.shipment_id " +
+                    "AND s.status = 'DELIVERED' AND s.delivered_at < ?)", cutoff);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                return moved;
+            });
+            if (retained != null) {
+                log.info("Archived {} tracking events from {}; {} events of undelivered shipments moved to {}",
+                    writer.eventCount(), partition, retained, DEFAULT_PARTITION);
+            }
+        } finally {
+            writer.discard();
+        }
+    }
+
+    private void archiveDefaultPartition(LocalDateTime cutoff) {
+        String name = "tracking-events-default-" + LocalDateTime.now().format(SWEEP_SUFFIX);
+        TrackingEventArchive.Writer writer = archive.newWriter(name, cutoff);
+        try {
+            Integer deleted = transactionTemplate.execute(status -> {
+                if (!tryLock()) {
+                    return null;
+                }
+                List<Long> ids = new ArrayList<>();
+                RowCallbackHandler export = exportTo(writer);
+                jdbcTemplate.query(EXPORT_SQL.formatted(DEFAULT_PARTITION, " AND e.event_time < ?"), rs -> {
+                    export.processRow(rs);
+                    ids.add(rs.getLong("id"));
+                }, cutoff, cutoff);
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                publishAfterCommit(writer);
+                return jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE id = ANY (?)",
+                    (Object) ids.toArray(new Long[0]));
+            });
+            if (deleted != null) {
+                log.info("Archived {} tracking events from {}", deleted, DEFAULT_PARTITION);
+            }
+        } finally {
+            writer.discard();
+        }
+    }
+
+    // The log is replaced by an empty one rather than cleared, so compaction does not pick the shipment up again
+    private void archiveEventLogs(LocalDateTime cutoff) {
+        String name = "tracking-events-log-" + LocalDateTime.now().format(SWEEP_SUFFIX);
+        TrackingEventArchive.Writer writer = archive.newWriter(name, cutoff);
+        try {
+            Integer archived = transactionTemplate.execute(status -> {
+                if (!tryLock()) {
+                    return null;
+                }
+                List<Long> ids = new ArrayList<>();
+                jdbcTemplate.query(EXPORT_EVENT_LOGS_SQL, rs -> {
+                    long shipmentId = rs.getLong("id");
+                    String trackingNumber = rs.getString("tracking_number");
+                    // Folded events no longer have row ids
+                    for (TrackingEventLog.Entry entry : TrackingEventLog.decode(rs.getBytes("event_log"))) {
+                        writer.add(new TrackingEventArchive.ArchivedEvent(0, shipmentId, trackingNumber,
+                            entry.location(), entry.description(), entry.eventTime(), entry.createdAt()));
+                    }
+                    ids.add(shipmentId);
+                }, cutoff);
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                publishAfterCommit(writer);
+                jdbcTemplate.update("UPDATE shipments SET event_log = ? WHERE id = ANY (?)",
+                    ARCHIVED_EVENT_LOG, ids.toArray(new Long[0]));
+                return ids.size();
+            });
+            if (archived != null) {
+                log.info("Archived {} compacted tracking events of {} shipments", writer.eventCount(), archived);
+            }
+        } finally {
+            writer.discard();
+        }
+    }
+
+    private List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'tracking_events'::regclass ORDER BY c.relname", String.class);
+    }
+
+    // Readers see the archive only once the rows are gone; a rollback leaves the rows and no archive behind
+    private static void publishAfterCommit(TrackingEventArchive.Writer writer) {
+        writer.prepare();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                writer.publish();
+            }
+        });
+    }
+
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY));
+    }
+
+    private static RowCallbackHandler exportTo(TrackingEventArchive.Writer writer) {
+        return rs -> writer.add(archivedEvent(rs));
+    }
+
+    private static TrackingEventArchive.ArchivedEvent archivedEvent(ResultSet rs) throws SQLException {
+        return new TrackingEventArchive.ArchivedEvent(
+            rs.getLong("id"),
+            rs.getLong("shipment_id"),
+            rs.getString("tracking_number"),
+            rs.getString("location"),
+            rs.getString("description"),
+            rs.getTimestamp("event_time").toLocalDateTime(),
+            rs.getTimestamp("created_at").toLocalDateTime());
+    }
+}
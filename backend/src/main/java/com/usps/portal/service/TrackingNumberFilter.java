@@ -0,0 +1,282 @@
+package com.usps.portal.service;
+
+import com.usps.portal.cache.BloomFilter;
+import com.usps.portal.config.TrackingFilterProperties;
+import com.usps.portal.repository.ShipmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Answers "definitely not issued" for tracking numbers without touching Redis caches or Postgres.
+// Until the filter is loaded every number is treated as possibly present. New numbers arrive through pub/sub,
+// which drops messages while a node is disconnected, so every node also adds the numbers created since its last
+// sync from the database, and the filter is only trusted for numbers issued before that sync.
+@Slf4j
+@Service
+public class TrackingNumberFilter implements MessageListener {
+
+    // Covers commit lag and clock skew between the nodes that create shipments and the node syncing
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+    private static final Duration SNAPSHOT_MERGE_TTL = Duration.ofMinutes(1);
+
+    private final TrackingFilterProperties properties;
+    private final ShipmentRepository shipmentRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BloomFilter filter;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong definiteMisses = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private final Counter absentCounter;
+    private final Counter falsePositiveCounter;
+
+    private volatile boolean ready;
+    // Start of the last successful sync; every number created before it, less the margin, is in the filter
+    private volatile Instant syncedThrough;
+
+    public TrackingNumberFilter(TrackingFilterProperties properties,
+                                ShipmentRepository shipmentRepository,
+                                StringRedisTemplate redisTemplate,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.shipmentRepository = shipmentRepository;
+        this.redisTemplate = redisTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.filter = BloomFilter.create(properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracking-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.absentCounter = Counter.builder("tracking.filter.checks")
+            .description("Lookups answered by the tracking number filter")
+            .tag("result", "absent")
+            .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("tracking.filter.checks")
+            .description("Lookups answered by the tracking number filter")
+            .tag("result", "false_positive")
+            .register(meterRegistry);
+        Gauge.builder("tracking.filter.false_positive_rate", this, TrackingNumberFilter::observedFalsePositiveRate)
+            .description("Share of lookups for unknown numbers that the filter let through")
+            .register(meterRegistry);
+        Gauge.builder("tracking.filter.expected_false_positive_rate", filter, BloomFilter::expectedFalsePositiveRate)
+            .description("False-positive probability implied by the filter's current fill")
+            .register(meterRegistry);
+        Gauge.builder("tracking.filter.ready", this, f -> f.ready ? 1 : 0)
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler.execute(this::initialize);
+        long syncInterval = properties.getSyncInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+        long snapshotInterval = properties.getSnapshotInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::saveSnapshot, snapshotInterval, snapshotInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean mightContain(String trackingNumber) {
+        if (!properties.isEnabled() || !ready || filter.mightContain(trackingNumber) || issuedSinceSync(trackingNumber)) {
+            return true;
+        }
+        definiteMisses.incrementAndGet();
+        absentCounter.increment();
+        return false;
+    }
+
+    // Called when a number that passed the filter turned out not to exist
+    public void recordFalsePositive() {
+        if (ready) {
+            falsePositives.incrementAndGet();
+            falsePositiveCounter.increment();
+        }
+    }
+
+    public void addAll(Collection<String> trackingNumbers) {
+        if (trackingNumbers.isEmpty()) {
+            return;
+        }
+        trackingNumbers.forEach(filter::put);
+        try {
+            redisTemplate.convertAndSend(properties.getAdditionsChannel(), String.join(",", trackingNumbers));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish {} tracking filter additions", trackingNumbers.size(), e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        for (String trackingNumber : new String(message.getBody(), StandardCharsets.UTF_8).split(",")) {
+            if (!trackingNumber.isEmpty()) {
+                filter.put(trackingNumber);
+            }
+        }
+    }
+
+    // A number dated after the last sync may so far only have reached this node through pub/sub. Numbers dated in
+    // the future were never issued, so the filter still answers for those.
+    private boolean issuedSinceSync(String trackingNumber) {
+        long issuedAt = TrackingNumberGenerator.issuedAtEpochSecond(trackingNumber);
+        long margin = CATCH_UP_MARGIN.toSeconds();
+        return issuedAt >= syncedThrough.getEpochSecond() - margin
+            && issuedAt <= Instant.now().getEpochSecond() + margin;
+    }
+
+    private void initialize() {
+        try {
+            Instant startedAt = Instant.now();
+            Instant snapshotTakenAt = loadSnapshot();
+            if (snapshotTakenAt != null) {
+                int recent = addCreatedSince(snapshotTakenAt);
+                log.info("Tracking number filter loaded from snapshot plus {} recent numbers", recent);
+            } else {
+                long count = rebuild();
+                log.info("Tracking number filter rebuilt from {} shipments", count);
+                if (count > properties.getExpectedInsertions()) {
+                    log.warn("Tracking number filter holds {} numbers but is sized for {}; raise tracking-filter.expected-insertions",
+                        count, properties.getExpectedInsertions());
+                }
+            }
+            syncedThrough = startedAt;
+            ready = true;
+            if (snapshotTakenAt == null) {
+                saveSnapshot();
+            }
+        } catch (RuntimeException e) {
+            log.error("Tracking number filter initialization failed; lookups bypass the filter", e);
+        }
+    }
+
+    private void sync() {
+        if (!ready) {
+            return;
+        }
+        try {
+            Instant startedAt = Instant.now();
+            addCreatedSince(syncedThrough);
+            syncedThrough = startedAt;
+        } catch (RuntimeException e) {
+            log.warn("Tracking number filter sync failed; numbers issued since {} bypass the filter", syncedThrough, e);
+        }
+    }
+
+    private int addCreatedSince(Instant since) {
+        List<String> recent = shipmentRepository.findTrackingNumbersCreatedSince(
+            LocalDateTime.ofInstant(since.minus(CATCH_UP_MARGIN), ZoneId.systemDefault()));
+        recent.forEach(filter::put);
+        return recent.size();
+    }
+
+    private long rebuild() {
+        Long count = readOnlyTransaction.execute(status -> {
+            try (Stream<String> trackingNumbers = shipmentRepository.streamAllTrackingNumbers()) {
+                AtomicLong added = new AtomicLong();
+                trackingNumbers.forEach(trackingNumber -> {
+                    filter.put(trackingNumber);
+                    added.incrementAndGet();
+                });
+                return added.get();
+            }
+        });
+        return count != null ? count : 0;
+    }
+
+    // The bits live under a key named after the filter's geometry, so nodes sized differently never mix their
+    // bits, and the sync time of the node that last merged into them is kept next to them
+    private Instant loadSnapshot() {
+        byte[] bitsKey = snapshotKey();
+        byte[] takenAtKey = takenAtKey();
+        List<byte[]> snapshot = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+            connection.stringCommands().mGet(takenAtKey, bitsKey));
+        if (snapshot == null || snapshot.get(0) == null || snapshot.get(1) == null
+                || (long) snapshot.get(1).length * Byte.SIZE != filter.bitCount()) {
+            return null;
+        }
+        filter.merge(snapshot.get(1));
+        return Instant.ofEpochSecond(Long.parseLong(new String(snapshot.get(0), StandardCharsets.US_ASCII)));
+    }
+
+    // ORs this node's filter into the shared snapshot rather than replacing it, so a number one node is still
+    // missing never removes it for the nodes that start from the snapshot. The bits are merged before the sync
+    // time is written, so a reader never sees a sync time the bits do not cover yet.
+    private void saveSnapshot() {
+        if (!ready) {
+            return;
+        }
+        try {
+            Instant takenAt = syncedThrough;
+            byte[] bits = filter.toBytes();
+            byte[] bitsKey = snapshotKey();
+            byte[] mergeKey = (properties.getSnapshotKey() + ":merge:" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                connection.stringCommands().set(mergeKey, bits, Expiration.from(SNAPSHOT_MERGE_TTL),
+                    RedisStringCommands.SetOption.upsert());
+                try {
+                    connection.stringCommands().bitOp(RedisStringCommands.BitOperation.OR, bitsKey, bitsKey, mergeKey);
+                } finally {
+                    connection.keyCommands().del(mergeKey);
+                }
+                connection.stringCommands().set(takenAtKey(),
+                    Long.toString(takenAt.getEpochSecond()).getBytes(StandardCharsets.US_ASCII));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to save tracking number filter snapshot", e);
+        }
+    }
+
+    private byte[] snapshotKey() {
+        return (properties.getSnapshotKey() + ":" + filter.bitCount() + "x" + filter.hashCount())
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] takenAtKey() {
+        return (properties.getSnapshotKey() + ":" + filter.bitCount() + "x" + filter.hashCount() + ":taken-at")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private double observedFalsePositiveRate() {
+        long passed = falsePositives.get();
+        long total = passed + definiteMisses.get();
+        return total == 0 ? 0 : (double) passed / total;
+    }
+}
@@ -0,0 +1,93 @@
+package com.usps.portal.service;
+
+import com.usps.portal.repository.ShipmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class TrackingNumberGenerator {
+
+    public static final int MAX_NODE_ID = 999;
+
+    private static final long EPOCH_SECOND = 1_704_067_200L; // 2024-01-01T00:00:00Z
+    private static final long SEQUENCE_RANGE = 1_000_000L;
+    private static final long MAX_SLOT = 9_999_999_999_999_999L; // 16 digits
+
+    private final int nodeId;
+    // seconds since EPOCH_SECOND * SEQUENCE_RANGE + sequence within that second
+    private final AtomicLong lastSlot = new AtomicLong();
+
+    // A default would let two replicas issue the same numbers, so only the dev profile sets one
+    @Autowired
+    public TrackingNumberGenerator(@Value("${tracking-number.node-id:#{null}}") Integer nodeId,
+                                   ShipmentRepository shipmentRepository) {
+        this(requireNodeId(nodeId));
+        // A previous run may have borrowed later seconds, or the clock may have stepped back since
+        shipmentRepository.findLastTrackingNumberBetween(format(0), format(MAX_SLOT))
+            .ifPresent(last -> lastSlot.accumulateAndGet(slot(last), Math::max));
+    }
+
+    public TrackingNumberGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("tracking-number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        // Starts with the next second: a previous run on this node may have issued numbers in the current one
+        lastSlot.set(currentSlot() + SEQUENCE_RANGE - 1);
+    }
+
+    public String next() {
+        long nowSlot = currentSlot();
+        // Strictly increasing per node: more than a million numbers in a second borrow from the next second,
+        // and a clock stepping backwards keeps counting from the last slot issued
+        long slot = lastSlot.updateAndGet(previous -> Math.max(previous + 1, nowSlot));
+        return format(slot);
+    }
+
+    // Second the number's slot was taken in, or -1 for numbers not in the current format. Slots borrowed from a
+    // later second during a burst date a number slightly late, never early.
+    static long issuedAtEpochSecond(String trackingNumber) {
+        if (!TrackingNumbers.isValid(trackingNumber)) {
+            return -1;
+        }
+        return EPOCH_SECOND + slot(trackingNumber) / SEQUENCE_RANGE;
+    }
+
+    private static int requireNodeId(Integer nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException("tracking-number.node-id (NODE_ID) is not set; give every replica its "
+                + "own id between 0 and " + MAX_NODE_ID + ", or run with the dev profile");
+        }
+        return nodeId;
+    }
+
+    private static long currentSlot() {
+        return (System.currentTimeMillis() / 1000 - EPOCH_SECOND) * SEQUENCE_RANGE;
+    }
+
+    private static long slot(String trackingNumber) {
+        long slot = 0;
+        for (int i = 5; i < TrackingNumbers.LENGTH - 1; i++) {
+            slot = slot * 10 + (trackingNumber.charAt(i) - '0');
+        }
+        return slot;
+    }
+
+    private String format(long slot) {
+        char[] digits = new char[TrackingNumbers.LENGTH];
+        digits[0] = TrackingNumbers.PREFIX[0];
+        digits[1] = TrackingNumbers.PREFIX[1];
+        digits[2] = (char) ('0' + nodeId / 100);
+        digits[3] = (char) ('0' + nodeId / 10 % 10);
+        digits[4] = (char) ('0' + nodeId % 10);
+        for (int i = TrackingNumbers.LENGTH - 2; i >= 5; i--) {
+            digits[i] = (char) ('0' + slot % 10);
+            slot /= 10;
+        }
+        digits[TrackingNumbers.LENGTH - 1] = (char) ('0' + TrackingNumbers.checkDigit(digits, TrackingNumbers.LENGTH - 1));
+        return new String(digits);
+    }
+}
@@ -0,0 +1,63 @@
+package com.usps.portal.service;
+
+import java.util.regex.Pattern;
+
+// USPS-style 22-digit numbers: "94" + 3-digit node id + 16-digit time/sequence slot + mod-10 check digit
+public final class TrackingNumbers {
+
+    public static final int LENGTH = 22;
+    static final char[] PREFIX = {'9', '4'};
+
+    // Numbers issued before the numeric format; they carry no check digit
+    private static final Pattern LEGACY = Pattern.compile("USPS[0-9A-F]{16}");
+
+    private TrackingNumbers() {
+    }
+
+    // Drops the spaces and hyphens people copy from labels
+    public static String normalize(String trackingNumber) {
+        StringBuilder normalized = new StringBuilder(trackingNumber.length());
+        for (int i = 0; i < trackingNumber.length(); i++) {
+            char c = trackingNumber.charAt(i);
+            if (!Character.isWhitespace(c) && c != '-') {
+                normalized.append(Character.toUpperCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    public static boolean isValid(String trackingNumber) {
+        if (trackingNumber == null || trackingNumber.length() != LENGTH
+                || trackingNumber.charAt(0) != PREFIX[0] || trackingNumber.charAt(1) != PREFIX[1]) {
+            return false;
+        }
+        int sum = 0;
+        boolean triple = true;
+        for (int i = LENGTH - 2; i >= 0; i--) {
+            int digit = trackingNumber.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += triple ? digit * 3 : digit;
+            triple = !triple;
+        }
+        return trackingNumber.charAt(LENGTH - 1) - '0' == (10 - sum % 10) % 10;
+    }
+
+    // Accepts current and legacy numbers; anything else cannot exist and needs no lookup
+    public static boolean isWellFormed(String trackingNumber) {
+        return isValid(trackingNumber) || (trackingNumber != null && LEGACY.matcher(trackingNumber).matches());
+    }
+
+    // Weights 3,1,3,... from the rightmost payload digit (GS1/USPS mod 10)
+    static int checkDigit(char[] digits, int length) {
+        int sum = 0;
+        boolean triple = true;
+        for (int i = length - 1; i >= 0; i--) {
+            int digit = digits[i] - '0';
+            sum += triple ? digit * 3 : digit;
+            triple = !triple;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,49 @@
+package com.usps.portal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.usps.portal.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+
+    private final boolean enabled;
+    private final Cache<Long, User> users;
+
+    public UserCache(@Value("${user-cache.enabled:true}") boolean enabled,
+                     @Value("${user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${user-cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    public User get(Long id, Function<Long, User> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        User user = users.getIfPresent(id);
+        if (user != null) {
+            return user;
+        }
+        // Load outside Caffeine's compute lock: a JDBC call inside it would pin a virtual thread's carrier
+        user = loader.apply(id);
+        if (user != null) {
+            users.put(id, user);
+        }
+        return user;
+    }
+
+    public void invalidate(Long id) {
+        if (id != null) {
+            users.invalidate(id);
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.usps.portal.service;
 
 import com.usps.portal.model.User;
 import com.usps.portal.repository.UserRepository;
+import com.usps.portal.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,6 +16,7 @@ import org.springframework.stereotype.Service;
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -20,6 +24,23 @@ public class UserService implements UserDetailsService {
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
     }
 
+    public User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user) {
+            return user;
+        }
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return findById(authenticatedUser.id());
+        }
+        return findByEmail(authentication.getName());
+    }
+
+    public User findById(Long id) {
+        return userCache.get(id, key -> userRepository.findById(key)
+            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + key)));
+    }
+
     public User findByEmail(String email) {
         return userRepository.findByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
@@ -30,8 +51,8 @@ public class UserService implements UserDetailsService {
     }
 
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getId());
+        return saved;
     }
 }
-
-
@@ -0,0 +1,51 @@
+-- Schema as previously generated by Hibernate's ddl-auto. Column names are the entity field names in snake_case:
+-- Spring Boot applies CamelCaseToUnderscoresNamingStrategy, as the hibernate.naming keys in application.yml are
+-- not the ones it reads.
+-- IF NOT EXISTS lets this run against databases that ddl-auto already created (baseline-version 0).
+
+CREATE TABLE IF NOT EXISTS users (
+    id        bigserial PRIMARY KEY,
+    email     varchar(255) NOT NULL UNIQUE,
+    first_name varchar(255) NOT NULL,
+    last_name  varchar(255) NOT NULL,
+    password  varchar(255) NOT NULL,
+    role      varchar(255) CHECK (role IN ('USER', 'ADMIN'))
+);
+
+CREATE SEQUENCE IF NOT EXISTS shipments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS shipments (
+    id               bigint PRIMARY KEY,
+    tracking_number   varchar(255) NOT NULL UNIQUE,
+    user_id          bigint NOT NULL REFERENCES users (id),
+    recipient_name    varchar(255) NOT NULL,
+    recipient_address varchar(255) NOT NULL,
+    recipient_city    varchar(255) NOT NULL,
+    recipient_state   varchar(255) NOT NULL,
+    recipient_zip_code varchar(255) NOT NULL,
+    status           varchar(255) NOT NULL
+        CHECK (status IN ('PENDING', 'IN_TRANSIT', 'OUT_FOR_DELIVERY', 'DELIVERED', 'EXCEPTION')),
+    created_at        timestamp(6) NOT NULL,
+    updated_at        timestamp(6) NOT NULL,
+    delivered_at      timestamp(6)
+);
+
+CREATE SEQUENCE IF NOT EXISTS tracking_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tracking_events (
+    id          bigint PRIMARY KEY,
+    shipment_id bigint NOT NULL REFERENCES shipments (id),
+    location    varchar(255) NOT NULL,
+    description varchar(255) NOT NULL,
+    event_time   timestamp(6) NOT NULL,
+    created_at   timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS shipment_daily_rollups (
+    user_id       bigint NOT NULL,
+    rollup_date    date NOT NULL,
+    status        varchar(255) NOT NULL
+        CHECK (status IN ('PENDING', 'IN_TRANSIT', 'OUT_FOR_DELIVERY', 'DELIVERED', 'EXCEPTION')),
+    shipment_count bigint NOT NULL,
+    PRIMARY KEY (rollup_date, status, user_id)
+);
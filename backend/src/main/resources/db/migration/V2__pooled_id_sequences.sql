@@ -0,0 +1,16 @@
+-- users moves from IDENTITY (a bigserial column) to a pooled sequence like shipments and
+-- tracking_events, so inserts no longer need a round trip per row to learn the generated id.
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS users_id_seq;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+-- Hibernate's pooled optimizer hands out (value - 49 .. value) for each nextval, so every sequence
+-- must sit at least one allocation past the ids assigned before it existed.
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users))
+WHERE (SELECT last_value FROM users_seq) < (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+
+SELECT setval('shipments_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM shipments))
+WHERE (SELECT last_value FROM shipments_seq) < (SELECT COALESCE(MAX(id), 0) + 50 FROM shipments);
+
+SELECT setval('tracking_events_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM tracking_events))
+WHERE (SELECT last_value FROM tracking_events_seq) < (SELECT COALESCE(MAX(id), 0) + 50 FROM tracking_events);
@@ -0,0 +1,25 @@
+-- Composite indexes for the repository queries; loadtest/explain-queries.sh checks the plans.
+-- CONCURRENTLY keeps writes flowing while the indexes build on an existing database, which makes
+-- this migration non-transactional: every statement must stay idempotent.
+
+-- Owner listing (keyset on created_at, id in either direction), date-range report pages and exports,
+-- and per-status counts as index-only scans via the included status.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_user_created
+    ON shipments (user_id, created_at, id) INCLUDE (status);
+
+-- Owner listing filtered by status.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_user_status_created
+    ON shipments (user_id, status, created_at, id);
+
+-- Bloom filter catch-up (tracking numbers created since a snapshot).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_created
+    ON shipments (created_at) INCLUDE (tracking_number);
+
+-- Tracking view join: a shipment's events newest first, without touching the heap. Also covers the
+-- shipment_id foreign key.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tracking_events_shipment_time
+    ON tracking_events (shipment_id, event_time DESC) INCLUDE (location, description);
+
+-- Report totals read a user's rollups; the primary key leads with rollup_date.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipment_daily_rollups_user_date
+    ON shipment_daily_rollups (user_id, rollup_date) INCLUDE (status, shipment_count);
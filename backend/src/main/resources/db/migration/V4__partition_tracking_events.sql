@@ -0,0 +1,57 @@
+-- Range-partition tracking_events by event_time month. Rows outside every monthly partition land in
+-- tracking_events_default; TrackingEventPartitionMaintenance keeps partitions created ahead of time and
+-- archives old months. The existing rows are copied inside this migration's transaction.
+
+ALTER TABLE tracking_events RENAME TO tracking_events_unpartitioned;
+ALTER TABLE tracking_events_unpartitioned DROP CONSTRAINT tracking_events_pkey;
+DROP INDEX IF EXISTS idx_tracking_events_shipment_time;
+
+-- A primary key on a partitioned table has to include the partition key
+CREATE TABLE tracking_events (
+    id          bigint NOT NULL,
+    shipment_id bigint NOT NULL REFERENCES shipments (id),
+    location    varchar(255) NOT NULL,
+    description varchar(255) NOT NULL,
+    event_time   timestamp(6) NOT NULL,
+    created_at   timestamp(6) NOT NULL,
+    PRIMARY KEY (id, event_time)
+) PARTITION BY RANGE (event_time);
+
+CREATE TABLE tracking_events_default PARTITION OF tracking_events DEFAULT;
+
+-- Creates the partition for [month, month + 1 month), moving any rows that already landed in the default
+-- partition into it. Returns false when the partition exists.
+CREATE OR REPLACE FUNCTION create_tracking_events_partition(month date) RETURNS boolean
+LANGUAGE plpgsql AS $$
+DECLARE
+    range_start timestamp := date_trunc('month', month::timestamp);
+    range_end   timestamp := date_trunc('month', month::timestamp) + interval '1 month';
+    partition   text := 'tracking_events_' || to_char(range_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE tracking_events INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition);
+    EXECUTE format('WITH moved AS (DELETE FROM tracking_events_default WHERE event_time >= %L AND event_time < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved', range_start, range_end, partition);
+    EXECUTE format('ALTER TABLE tracking_events ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition, range_start, range_end);
+    RETURN true;
+END $$;
+
+SELECT create_tracking_events_partition(month::date)
+FROM generate_series(
+    date_trunc('month', coalesce((SELECT min(event_time) FROM tracking_events_unpartitioned), now()::timestamp)),
+    date_trunc('month', now()::timestamp) + interval '3 months',
+    interval '1 month') AS month;
+
+INSERT INTO tracking_events (id, shipment_id, location, description, event_time, created_at)
+SELECT id, shipment_id, location, description, event_time, created_at FROM tracking_events_unpartitioned;
+
+DROP TABLE tracking_events_unpartitioned;
+
+-- Partitioned index: created on every existing partition and on each one attached later
+CREATE INDEX idx_tracking_events_shipment_time ON tracking_events (shipment_id, event_time DESC)
+    INCLUDE (location, description);
+
+ANALYZE tracking_events;
@@ -0,0 +1,2 @@
+-- Compacted event history of delivered shipments (TrackingEventLog), written by TrackingEventCompactionJob
+ALTER TABLE shipments ADD COLUMN IF NOT EXISTS event_log bytea;
@@ -0,0 +1,3 @@
+-- Delivered shipments still waiting for TrackingEventCompactionJob, oldest delivery first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_uncompacted_delivered ON shipments (delivered_at)
+    WHERE status = 'DELIVERED' AND event_log IS NULL;
@@ -0,0 +1,12 @@
+-- Tracking scans ScanIngestionService could not write even on their own. Unbounded text columns, so the value that
+-- made the write fail (an oversized location, say) still fits here.
+CREATE TABLE IF NOT EXISTS scan_dead_letters (
+    id              bigserial PRIMARY KEY,
+    tracking_number text,
+    location        text,
+    description     text,
+    event_time      timestamp(6),
+    status          varchar(255),
+    error           text NOT NULL,
+    failed_at       timestamp(6) NOT NULL DEFAULT now()
+);
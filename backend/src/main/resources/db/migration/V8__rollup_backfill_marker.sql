@@ -0,0 +1,7 @@
+-- Records that shipment_daily_rollups was rebuilt from shipments. Rows in the rollup table alone do not mean that:
+-- a node may have counted new shipments before any backfill ran. At most one row.
+CREATE TABLE IF NOT EXISTS shipment_rollup_backfills (
+    id           integer PRIMARY KEY CHECK (id = 1),
+    buckets      integer NOT NULL,
+    completed_at timestamp(6) NOT NULL DEFAULT now()
+);
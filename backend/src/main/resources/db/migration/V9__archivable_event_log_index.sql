@@ -0,0 +1,4 @@
+-- Compacted event logs of delivered shipments that TrackingEventPartitionMaintenance has not archived yet. An
+-- archived log is replaced by the empty log, which TrackingEventLog.encode(List.of()) writes as 01 00 00 00.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_archivable_event_log ON shipments (delivered_at)
+    WHERE status = 'DELIVERED' AND event_log IS NOT NULL AND event_log <> '\x01000000'::bytea;
@@ -0,0 +1,150 @@
+package com.usps.portal.service;
+
+import com.usps.portal.config.TrackingEventStorageProperties;
+import com.usps.portal.dto.TrackingEventView;
+import com.usps.portal.dto.TrackingView;
+import com.usps.portal.dto.TrackingViewRow;
+import com.usps.portal.model.Shipment;
+import com.usps.portal.model.TrackingEventLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A delivered shipment's history as the tracking page reads it (TrackingView.fromRows over the
+// findTrackingViewRows join, then TrackingEventArchive.withArchivedEvents) must not change when
+// TrackingEventCompactionJob folds its rows into the event log or TrackingEventPartitionMaintenance archives the log
+class TrackingEventHistoryTest {
+
+    private static final String TRACKING_NUMBER = "USPS00000000000000A1";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 4, 8, 15, 30, 123_456_000);
+    private static final LocalDateTime DELIVERED_AT = CREATED_AT.plusDays(2).plusHours(3);
+
+    @TempDir
+    Path archiveDirectory;
+
+    @Test
+    void compactedHistoryReadsLikeTheEventRows() {
+        List<TrackingViewRow> rows = eventRows(history());
+
+        TrackingView before = view(rows);
+        TrackingView after = view(List.of(compactedRow(compact(rows))));
+
+        assertThat(after.events()).isEqualTo(before.events());
+        assertThat(after.events()).extracting(TrackingEventView::description)
+            .containsExactly("Delivered, In/At Mailbox", "Out for Delivery", "Arrived at Post Office",
+                "Shipment created and pending pickup");
+    }
+
+    @Test
+    void scanRecordedAfterCompactionIsMergedNewestFirst() {
+        List<TrackingViewRow> rows = eventRows(history());
+        TrackingViewRow late = eventRow("CHICAGO, IL 60601", "Delivered, Parcel Locker", DELIVERED_AT.plusMinutes(5),
+            null);
+
+        List<TrackingViewRow> compacted = List.of(withEventLog(late, compact(rows)));
+
+        List<TrackingEventView> events = view(compacted).events();
+        assertThat(events).hasSize(rows.size() + 1);
+        assertThat(events.get(0).description()).isEqualTo("Delivered, Parcel Locker");
+        assertThat(events).isSortedAccordingTo((a, b) -> b.eventTime().compareTo(a.eventTime()));
+    }
+
+    @Test
+    void archivedEventLogStillReadsLikeTheEventRows() {
+        List<TrackingViewRow> rows = eventRows(history());
+        byte[] eventLog = compact(rows);
+        TrackingEventArchive archive = new TrackingEventArchive(properties());
+
+        // What TrackingEventPartitionMaintenance does once the shipment is past the retention horizon
+        TrackingEventArchive.Writer writer = archive.newWriter("tracking-events-log-test", DELIVERED_AT.plusDays(1));
+        for (TrackingEventLog.Entry entry : TrackingEventLog.decode(eventLog)) {
+            writer.add(new TrackingEventArchive.ArchivedEvent(0, 1, TRACKING_NUMBER, entry.location(),
+                entry.description(), entry.eventTime(), entry.createdAt()));
+        }
+        writer.prepare();
+        writer.publish();
+        writer.discard();
+
+        Map<String, TrackingView> views = TrackingView.fromRows(
+            List.of(compactedRow(TrackingEventLog.encode(List.of()))));
+        TrackingView archived = archive.withArchivedEvents(views).get(TRACKING_NUMBER);
+
+        assertThat(archived.events()).isEqualTo(view(rows).events());
+        // A reader that starts after the archive was published finds it in the directory
+        TrackingView reloaded = new TrackingEventArchive(properties()).withArchivedEvents(TrackingView.fromRows(
+            List.of(compactedRow(TrackingEventLog.encode(List.of()))))).get(TRACKING_NUMBER);
+        assertThat(reloaded.events()).isEqualTo(view(rows).events());
+    }
+
+    @Test
+    void emptyEventLogMatchesTheArchivedLogIndexPredicate() {
+        // V9__archivable_event_log_index.sql spells this value out
+        assertThat(HexFormat.of().formatHex(TrackingEventLog.encode(List.of()))).isEqualTo("01000000");
+        assertThat(TrackingEventLog.decode(TrackingEventLog.encode(List.of()))).isEmpty();
+    }
+
+    private TrackingEventStorageProperties properties() {
+        TrackingEventStorageProperties properties = new TrackingEventStorageProperties();
+        properties.getRetention().setArchiveDirectory(archiveDirectory.toString());
+        return properties;
+    }
+
+    private static List<TrackingEventLog.Entry> history() {
+        return List.of(
+            new TrackingEventLog.Entry("Origin Facility", "Shipment created and pending pickup",
+                CREATED_AT, CREATED_AT),
+            new TrackingEventLog.Entry("CHICAGO, IL 60601", "Arrived at Post Office",
+                CREATED_AT.plusDays(1).plusNanos(7_000), CREATED_AT.plusDays(1).plusSeconds(42)),
+            new TrackingEventLog.Entry("CHICAGO, IL 60601", "Out for Delivery",
+                DELIVERED_AT.minusHours(4), DELIVERED_AT.minusHours(4)),
+            new TrackingEventLog.Entry("CHICAGO, IL 60601", "Delivered, In/At Mailbox",
+                DELIVERED_AT, DELIVERED_AT.plusSeconds(1)));
+    }
+
+    // As findTrackingViewRows returns them: newest event first
+    private static List<TrackingViewRow> eventRows(List<TrackingEventLog.Entry> history) {
+        List<TrackingViewRow> rows = new ArrayList<>();
+        for (int i = history.size() - 1; i >= 0; i--) {
+            TrackingEventLog.Entry entry = history.get(i);
+            rows.add(eventRow(entry.location(), entry.description(), entry.eventTime(), null));
+        }
+        return rows;
+    }
+
+    // The compaction job reads created_at from the rows; the tracking page does not show it
+    private static byte[] compact(List<TrackingViewRow> rows) {
+        List<TrackingEventLog.Entry> entries = new ArrayList<>();
+        for (TrackingViewRow row : rows) {
+            entries.add(new TrackingEventLog.Entry(row.eventLocation(), row.eventDescription(), row.eventTime(),
+                row.eventTime()));
+        }
+        return TrackingEventLog.encode(entries);
+    }
+
+    private static TrackingView view(List<TrackingViewRow> rows) {
+        return TrackingView.fromRows(rows).get(TRACKING_NUMBER);
+    }
+
+    private static TrackingViewRow compactedRow(byte[] eventLog) {
+        return eventRow(null, null, null, eventLog);
+    }
+
+    private static TrackingViewRow withEventLog(TrackingViewRow row, byte[] eventLog) {
+        return eventRow(row.eventLocation(), row.eventDescription(), row.eventTime(), eventLog);
+    }
+
+    private static TrackingViewRow eventRow(String location, String description, LocalDateTime eventTime,
+                                            byte[] eventLog) {
+        return new TrackingViewRow(TRACKING_NUMBER, 7L, Shipment.ShipmentStatus.DELIVERED, "Jane Doe",
+            "1 Main St", "Chicago", "IL", "60601", CREATED_AT, DELIVERED_AT, DELIVERED_AT, eventLog,
+            location, description, eventTime);
+    }
+}
@@ -0,0 +1,68 @@
+#!/bin/bash
+# Builds the backend and the JMH module and runs the benchmarks with fixed JVM settings, writing JMH's JSON
+# results to benchmarks/results/ named after the time and commit, so runs on different commits can be compared.
+#
+# Needs: Java 17+, Maven and python3 (for --compare). Extra arguments go to JMH, e.g. a benchmark regex or
+# "-p eventCount=10"; set SKIP_BUILD=1 to reuse the last build and JMH_JVM_ARGS to change the forked JVM flags.
+#
+# Usage: benchmarks/run-benchmarks.sh [JMH options] [benchmark regex...]
+#        benchmarks/run-benchmarks.sh --compare <baseline.json> <candidate.json>
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RESULTS_DIR="$ROOT/benchmarks/results"
+JMH_JVM_ARGS="${JMH_JVM_ARGS:--Xms2g -Xmx2g -XX:+AlwaysPreTouch}"
+
+# Prints one line per benchmark/params pair: baseline score, candidate score and the change
+compare() {
+  python3 - "$1" "$2" <<'EOF'
+import json, math, sys
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(run.get("params", {}).items()))
+            name = ".".join(run["benchmark"].split(".")[-2:])
+            metric = run["primaryMetric"]
+            results[(name, params)] = (metric["score"], float(metric["scoreError"]), metric["scoreUnit"])
+        return results
+
+baseline, candidate = load(sys.argv[1]), load(sys.argv[2])
+print(f"{'Benchmark':<60} {'Params':<40} {'Baseline':>14} {'Candidate':>14} {'Change':>9}")
+for key in sorted(baseline.keys() | candidate.keys()):
+    name, params = key
+    base, cand = baseline.get(key), candidate.get(key)
+    # JMH reports the error of a single-iteration run as "NaN"
+    fmt = lambda m: "-" if not m else f"{m[0]:.3f}" if math.isnan(m[1]) else f"{m[0]:.3f}±{m[1]:.3f}"
+    change = f"{(cand[0] - base[0]) / base[0] * 100:+.1f}%" if base and cand and base[0] else ""
+    unit = (cand or base)[2]
+    print(f"{name:<60} {params:<40} {fmt(base):>14} {fmt(cand):>14} {change:>9}  {unit}")
+EOF
+}
+
+if [ "${1:-}" = "--compare" ]; then
+  [ $# -eq 3 ] || { echo "Usage: $0 --compare <baseline.json> <candidate.json>"; exit 1; }
+  compare "$2" "$3"
+  exit 0
+fi
+
+if [ "${SKIP_BUILD:-0}" != "1" ]; then
+  (cd "$ROOT/backend" && mvn -B -q install -DskipTests)
+  (cd "$ROOT/benchmarks" && mvn -B -q package)
+fi
+
+mkdir -p "$RESULTS_DIR"
+COMMIT="$(git -C "$ROOT" rev-parse --short HEAD 2>/dev/null || echo unknown)"
+if [ -n "$(git -C "$ROOT" status --porcelain -- backend benchmarks 2>/dev/null)" ]; then
+  COMMIT="$COMMIT-dirty"
+fi
+RESULT="$RESULTS_DIR/jmh-$(date +%Y%m%d-%H%M%S)-$COMMIT"
+
+java -jar "$ROOT/benchmarks/target/benchmarks.jar" \
+  -jvmArgs "$JMH_JVM_ARGS" \
+  -rf json -rff "$RESULT.json" \
+  "$@" 2>&1 | tee "$RESULT.log"
+
+echo "Results written to $RESULT.json"
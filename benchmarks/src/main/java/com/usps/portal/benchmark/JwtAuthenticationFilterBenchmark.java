@@ -0,0 +1,122 @@
+package com.usps.portal.benchmark;
+
+import com.usps.portal.model.User;
+import com.usps.portal.security.JwtAuthenticationFilter;
+import com.usps.portal.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One request through {@link JwtAuthenticationFilter#doFilter}: bearer token verification, principal resolution and
+ * the security context round trip. {@code principal} switches between the claims-only principal and loading the
+ * user through a stubbed in-memory {@link UserDetailsService} (the database lookup itself is not measured);
+ * {@code tokenCache} between a warm verified-token cache and rotating distinct tokens through a disabled one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"stateless", "user-details"})
+    public String principal;
+
+    @Param({"warm", "off"})
+    public String tokenCache;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest[] requests;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletRequest forgedRequest;
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        JwtService jwtService = new JwtService(JwtServiceBenchmark.SECRET, JwtServiceBenchmark.EXPIRATION,
+            tokenCache.equals("warm") ? 10_000 : 0, new SimpleMeterRegistry());
+        User user = User.builder()
+            .id(1L)
+            .email("bench@example.com")
+            .password("ignored")
+            .firstName("Bench")
+            .lastName("User")
+            .build();
+        UserDetailsService userDetailsService = username -> user;
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService);
+        Field statelessPrincipal = ReflectionUtils.findField(JwtAuthenticationFilter.class, "statelessPrincipal");
+        ReflectionUtils.makeAccessible(statelessPrincipal);
+        ReflectionUtils.setField(statelessPrincipal, filter, principal.equals("stateless"));
+
+        requests = new MockHttpServletRequest[tokenCache.equals("warm") ? 1 : 1024];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = request(jwtService.generateToken(Map.of(
+                JwtService.CLAIM_USER_ID, user.getId(), JwtService.CLAIM_ROLE, user.getRole().name(), "n", i), user));
+        }
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/tracking/my-shipments");
+        String token = jwtService.generateToken(user);
+        forgedRequest = request(token.substring(0, token.length() - 4) + "AAAA");
+        response = new MockHttpServletResponse();
+
+        if (authenticate() == null || anonymous() != null || forged() != null) {
+            throw new IllegalStateException("Filter did not authenticate exactly the valid token");
+        }
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        return run(requests[next++ & (requests.length - 1)]);
+    }
+
+    @Benchmark
+    public Authentication anonymous() throws Exception {
+        return run(anonymousRequest);
+    }
+
+    @Benchmark
+    public Authentication forged() throws Exception {
+        return run(forgedRequest);
+    }
+
+    private Authentication run(MockHttpServletRequest request) throws Exception {
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tracking/my-shipments");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
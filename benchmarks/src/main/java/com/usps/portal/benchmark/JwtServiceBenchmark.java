@@ -0,0 +1,103 @@
+package com.usps.portal.benchmark;
+
+import com.usps.portal.model.User;
+import com.usps.portal.security.JwtService;
+import com.usps.portal.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pre-refactor verification path (key rebuilt and token parsed three times per request)
+ * with {@link JwtService#verify(String)} both uncached (rotating distinct tokens through a zero-sized cache)
+ * and with the verified-token cache warm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "YWJjZGVmZ2hpamsxMjM0NTY3ODkwYWJjZGVmZ2hpamsxMjM0NTY3ODkwYWJjZGVmZ2hpamsxMjM0NTY3ODkwYWJjZGVmZ2hpamsxMjM0NTY3ODkw";
+    static final long EXPIRATION = 86_400_000L;
+
+    private JwtService uncachedService;
+    private JwtService cachedService;
+    private User user;
+    private String token;
+    private String[] distinctTokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        uncachedService = new JwtService(SECRET, EXPIRATION, 0, new SimpleMeterRegistry());
+        cachedService = new JwtService(SECRET, EXPIRATION, 10_000, new SimpleMeterRegistry());
+        user = User.builder()
+            .id(1L)
+            .email("bench@example.com")
+            .password("ignored")
+            .firstName("Bench")
+            .lastName("User")
+            .build();
+        token = cachedService.generateToken(user);
+        cachedService.verify(token);
+        distinctTokens = new String[1024];
+        for (int i = 0; i < distinctTokens.length; i++) {
+            distinctTokens[i] = cachedService.generateToken(Map.of("n", i), user);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean legacyExtractAndValidate() {
+        String username = legacyClaims(token).getSubject();
+        boolean valid = legacyClaims(token).getSubject().equals(username)
+            && !legacyClaims(token).getExpiration().before(new Date());
+        return valid && username.equals(user.getUsername());
+    }
+
+    @Benchmark
+    public boolean singleParseVerify() {
+        String distinct = distinctTokens[next++ & (distinctTokens.length - 1)];
+        VerifiedToken verified = uncachedService.verify(distinct);
+        return uncachedService.isTokenValid(verified, user);
+    }
+
+    @Benchmark
+    public boolean cachedVerify() {
+        VerifiedToken verified = cachedService.verify(token);
+        return cachedService.isTokenValid(verified, user);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser()
+            .verifyWith(key)
+            .build()
+            .parseSignedClaims(token)
+            .getPayload();
+    }
+}
@@ -0,0 +1,133 @@
+package com.usps.portal.benchmark;
+
+import com.usps.portal.config.RateLimitConfig;
+import com.usps.portal.config.RateLimitConfig.RateLimitPolicy;
+import com.usps.portal.config.RateLimitConfig.RateLimitService;
+import com.usps.portal.config.RateLimitProperties;
+import com.usps.portal.security.JwtService;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.ResolvableType;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link RateLimitService#tryConsume}, the bucket lookup and token the filter takes, single-threaded and with eight
+ * threads sharing the service, for the in-process buckets ({@code rate-limit.distributed=false}). {@code keys}
+ * selects every thread hitting one client's bucket, one client per thread, or a client population larger than
+ * {@code rate-limit.local.maximum-size} so lookups keep missing and evicting. Capacity is set high enough that no
+ * call is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitServiceBenchmark {
+
+    private static final int CLIENT_POPULATION = 1 << 18;
+
+    @Param({"shared", "per-thread", "churn"})
+    public String keys;
+
+    private RateLimitService service;
+    private RateLimitPolicy policy;
+    private String[] clients;
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDistributed(false);
+        properties.setCapacity(10_000_000_000L);
+        RateLimitProperties.Policy tracking = new RateLimitProperties.Policy();
+        tracking.setName("tracking");
+        tracking.setPattern("/api/tracking/**");
+        tracking.setCapacity(10_000_000_000L);
+        properties.setPolicies(List.of(tracking));
+
+        // No Redis connection bean, exactly as with rate-limit.distributed=false
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        service = new RateLimitConfig().rateLimitService(
+            beanFactory.getBeanProvider(ResolvableType.forClassWithGenerics(
+                StatefulRedisConnection.class, String.class, byte[].class)),
+            properties,
+            new JwtService(JwtServiceBenchmark.SECRET, JwtServiceBenchmark.EXPIRATION, 0, new SimpleMeterRegistry()),
+            new SimpleMeterRegistry());
+        policy = service.resolvePolicy("/api/tracking/9400100000017000000010");
+
+        clients = new String[CLIENT_POPULATION];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = "user:" + (100_000 + i);
+        }
+        if (CLIENT_POPULATION <= properties.getLocal().getMaximumSize()) {
+            throw new IllegalStateException("Client population must exceed the local bucket cache");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private int index;
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setup(RateLimitServiceBenchmark benchmark) {
+            index = benchmark.threads.getAndIncrement();
+            random = new SplittableRandom(index);
+        }
+    }
+
+    @Benchmark
+    public long resolveAndConsume(Client client) {
+        return consume(client);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long resolveAndConsumeContended(Client client) {
+        return consume(client);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Bucket resolveBucketContended(Client client) {
+        return service.resolveBucket(policy, key(client));
+    }
+
+    private long consume(Client client) {
+        ConsumptionProbe probe = service.tryConsume(policy, key(client));
+        if (!probe.isConsumed()) {
+            throw new IllegalStateException("Benchmark bucket ran dry");
+        }
+        return probe.getRemainingTokens();
+    }
+
+    private String key(Client client) {
+        return switch (keys) {
+            case "shared" -> clients[0];
+            case "per-thread" -> clients[client.index];
+            case "churn" -> clients[client.random.nextInt(CLIENT_POPULATION)];
+            default -> throw new IllegalArgumentException(keys);
+        };
+    }
+}
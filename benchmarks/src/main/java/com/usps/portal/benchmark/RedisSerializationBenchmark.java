@@ -0,0 +1,179 @@
+package com.usps.portal.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.usps.portal.cache.CacheValueSerializer;
+import com.usps.portal.dto.ShipmentPage;
+import com.usps.portal.dto.ShipmentSummary;
+import com.usps.portal.dto.TrackingEventView;
+import com.usps.portal.dto.TrackingView;
+import com.usps.portal.model.Shipment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Encode/decode cost and stored size of cache values for the previous {@code GenericJackson2JsonRedisSerializer}
+ * setup and each {@link CacheValueSerializer} format, with and without LZ4. Bytes per entry are printed once per
+ * trial because JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisSerializationBenchmark {
+
+    @Param({"legacy-json", "json", "smile", "cbor", "json+lz4", "smile+lz4", "cbor+lz4"})
+    public String codec;
+
+    @Param({"report", "shipment-page", "tracking-view", "report-shipments"})
+    public String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        serializer = serializer(codec);
+        value = payload(payload);
+        encoded = serializer.serialize(value);
+        Object decoded = serializer.deserialize(encoded);
+        if (decoded == null || decoded.getClass() != value.getClass()) {
+            throw new IllegalStateException(codec + " did not round-trip " + payload);
+        }
+        // Entries written before the switch must stay readable
+        Object migrated = new CacheValueSerializer(CacheValueSerializer.Format.SMILE, 1024).deserialize(encoded);
+        if (migrated == null || migrated.getClass() != value.getClass()) {
+            throw new IllegalStateException("CacheValueSerializer cannot read " + codec + " " + payload);
+        }
+        System.out.printf("%n[size] codec=%s payload=%s bytes=%d%n", codec, payload, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    static RedisSerializer<Object> serializer(String codec) {
+        if (codec.equals("legacy-json")) {
+            // The previous RedisConfig mapper, plus the getter-as-setter fix without which it cannot read Shipment back
+            ObjectMapper mapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(MapperFeature.USE_GETTERS_AS_SETTERS)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setDefaultTyping(defaultRedisTyping())
+                .build();
+            GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+            return new GenericJackson2JsonRedisSerializer(mapper);
+        }
+        String[] parts = codec.split("\\+");
+        CacheValueSerializer.Format format = CacheValueSerializer.Format.valueOf(parts[0].toUpperCase());
+        return new CacheValueSerializer(format, parts.length > 1 ? 1024 : -1);
+    }
+
+    // The type information new GenericJackson2JsonRedisSerializer() writes; its resolver class is not public
+    private static TypeResolverBuilder<?> defaultRedisTyping() {
+        AtomicReference<TypeResolverBuilder<?>> typing = new AtomicReference<>();
+        new GenericJackson2JsonRedisSerializer()
+            .configure(mapper -> typing.set(mapper.getSerializationConfig().getDefaultTyper(null)));
+        return typing.get();
+    }
+
+    static Object payload(String payload) {
+        return switch (payload) {
+            case "report" -> report();
+            case "shipment-page" -> new ShipmentPage(shipments(20), "eyJjcmVhdGVkQXQiOiIyMDI2LTAxLTAxIiwiaWQiOjQyfQ");
+            case "tracking-view" -> trackingView(30);
+            case "report-shipments" -> new ArrayList<>(shipments(200));
+            default -> throw new IllegalArgumentException(payload);
+        };
+    }
+
+    private static Map<String, Object> report() {
+        Map<String, Long> statusCounts = new HashMap<>();
+        long total = 0;
+        for (Shipment.ShipmentStatus status : Shipment.ShipmentStatus.values()) {
+            long count = 100L + status.ordinal() * 37L;
+            statusCounts.put(status.name(), count);
+            total += count;
+        }
+        Map<String, Object> report = new HashMap<>();
+        report.put("totalShipments", total);
+        report.put("period", Map.of(
+            "start", LocalDateTime.of(2026, 1, 1, 0, 0),
+            "end", LocalDateTime.of(2026, 3, 31, 23, 59)));
+        report.put("statusCounts", statusCounts);
+        report.put("deliveryRate", 100.0 * statusCounts.get("DELIVERED") / total);
+        return report;
+    }
+
+    private static List<ShipmentSummary> shipments(int count) {
+        Shipment.ShipmentStatus[] statuses = Shipment.ShipmentStatus.values();
+        LocalDateTime base = LocalDateTime.of(2026, 2, 1, 9, 30);
+        List<ShipmentSummary> shipments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Shipment.ShipmentStatus status = statuses[i % statuses.length];
+            shipments.add(new ShipmentSummary(
+                1000L + i,
+                String.format("94001%016d", 17_000_000L + i) + (i % 10),
+                42L,
+                "Recipient " + i,
+                (100 + i) + " Main Street, Apt " + (i % 12),
+                "Springfield",
+                "IL",
+                String.format("62%03d", i % 1000),
+                status,
+                base.plusMinutes(i * 13L),
+                base.plusHours(i),
+                status == Shipment.ShipmentStatus.DELIVERED ? base.plusDays(2).plusMinutes(i) : null));
+        }
+        return shipments;
+    }
+
+    private static TrackingView trackingView(int eventCount) {
+        LocalDateTime base = LocalDateTime.of(2026, 2, 1, 9, 30);
+        List<TrackingEventView> events = new ArrayList<>(eventCount);
+        for (int i = eventCount - 1; i >= 0; i--) {
+            events.add(new TrackingEventView(
+                "Distribution Center " + (i % 7) + ", Chicago IL 606" + (10 + i % 40),
+                i == 0 ? "Shipping label created" : "Arrived at USPS regional facility",
+                base.plusHours(i * 3L)));
+        }
+        return new TrackingView("9400100000017000000010", 42L, Shipment.ShipmentStatus.IN_TRANSIT,
+            "Recipient", "100 Main Street", "Springfield", "IL", "62701",
+            base, base.plusHours(eventCount * 3L), null, events);
+    }
+}
@@ -0,0 +1,195 @@
+package com.usps.portal.benchmark;
+
+import com.usps.portal.dto.ShipmentStatusCount;
+import com.usps.portal.model.Shipment;
+import com.usps.portal.model.User;
+import com.usps.portal.repository.ShipmentDailyRollupRepository;
+import com.usps.portal.repository.ShipmentRepository;
+import com.usps.portal.service.ReportService;
+import com.usps.portal.service.ShipmentRollupService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * {@link ReportService} aggregation for one user over a synthetic shipment list, against the previous
+ * implementation that loaded every shipment in range and counted each status with its own stream pass.
+ * The repositories are in-memory stubs whose answers are computed from the list once and then replayed, so only
+ * the service-side work is timed; the queries themselves are covered by {@code loadtest/explain-queries.sh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int shipmentCount;
+
+    private User user;
+    private List<Shipment> shipments;
+    private List<Shipment> inRange;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private ReportService reportService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        user = User.builder()
+            .id(1L)
+            .email("bench@example.com")
+            .password("ignored")
+            .firstName("Bench")
+            .lastName("User")
+            .build();
+        shipments = shipments(user, shipmentCount);
+        // 90 days with partial first and last days, so both the rollup and the edge-day queries are used
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        startDate = base.plusDays(10).plusHours(10);
+        endDate = base.plusDays(100).plusHours(15);
+        // What findByUserAndDateRange returned to the previous implementation
+        inRange = shipments.stream()
+            .filter(s -> !s.getCreatedAt().isBefore(startDate) && !s.getCreatedAt().isAfter(endDate))
+            .toList();
+
+        ShipmentRepository shipmentRepository = stub(ShipmentRepository.class, (method, args) -> switch (method) {
+            case "countByStatus" -> count(s -> true);
+            case "countByStatusAndDateRange" -> count(s -> !s.getCreatedAt().isBefore((LocalDateTime) args[1])
+                && !s.getCreatedAt().isAfter((LocalDateTime) args[2]));
+            case "countByStatusCreatedFromUntil" -> count(s -> !s.getCreatedAt().isBefore((LocalDateTime) args[1])
+                && s.getCreatedAt().isBefore((LocalDateTime) args[2]));
+            default -> throw new UnsupportedOperationException(method);
+        });
+        ShipmentDailyRollupRepository rollupRepository = stub(ShipmentDailyRollupRepository.class, (method, args) -> switch (method) {
+            case "sumByStatus" -> count(s -> true);
+            case "sumByStatusAndDays" -> count(s -> !s.getCreatedAt().toLocalDate().isBefore((LocalDate) args[1])
+                && s.getCreatedAt().toLocalDate().isBefore((LocalDate) args[2]));
+            default -> throw new UnsupportedOperationException(method);
+        });
+        reportService = new ReportService(shipmentRepository, new ShipmentRollupService(rollupRepository, shipmentRepository));
+
+        Map<String, Object> legacy = legacyShipmentReport();
+        Map<String, Object> current = generateShipmentReport();
+        if (!legacy.get("statusCounts").equals(current.get("statusCounts"))
+                || ((Number) legacy.get("totalShipments")).longValue() != (Long) current.get("totalShipments")) {
+            throw new IllegalStateException("Rollup report does not match the shipment list: " + legacy + " vs " + current);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> legacyShipmentReport() {
+        Map<String, Object> report = new HashMap<>();
+        report.put("totalShipments", inRange.size());
+        report.put("period", Map.of("start", startDate, "end", endDate));
+
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (Shipment.ShipmentStatus status : Shipment.ShipmentStatus.values()) {
+            statusCounts.put(status.name(), inRange.stream()
+                .filter(s -> s.getStatus() == status)
+                .count());
+        }
+        report.put("statusCounts", statusCounts);
+
+        long deliveredCount = statusCounts.getOrDefault("DELIVERED", 0L);
+        report.put("deliveryRate", inRange.isEmpty() ? 0.0 :
+            (double) deliveredCount / inRange.size() * 100);
+
+        report.put("shipments", inRange);
+        return report;
+    }
+
+    @Benchmark
+    public Map<String, Object> generateShipmentReport() {
+        return reportService.generateShipmentReport(user, startDate, endDate);
+    }
+
+    @Benchmark
+    public Map<String, Object> generateUserStatistics() {
+        return reportService.generateUserStatistics(user);
+    }
+
+    private List<ShipmentStatusCount> count(Predicate<Shipment> filter) {
+        Map<Shipment.ShipmentStatus, Long> counts = new EnumMap<>(Shipment.ShipmentStatus.class);
+        for (Shipment shipment : shipments) {
+            if (filter.test(shipment)) {
+                counts.merge(shipment.getStatus(), 1L, Long::sum);
+            }
+        }
+        List<ShipmentStatusCount> result = new ArrayList<>();
+        counts.forEach((status, count) -> result.add(new ShipmentStatusCount(status, count)));
+        return result;
+    }
+
+    // Each distinct call is answered once and replayed from then on, like a query whose cost is not measured here
+    private static <T> T stub(Class<T> repository, StubQuery query) {
+        Map<List<Object>, Object> answers = new ConcurrentHashMap<>();
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "toString" -> repository.getSimpleName() + " stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> {
+                    Object[] arguments = args != null ? args : new Object[0];
+                    List<Object> key = new ArrayList<>(Arrays.asList(arguments));
+                    key.add(0, method.getName());
+                    yield answers.computeIfAbsent(key, k -> query.answer(method.getName(), arguments));
+                }
+            }));
+    }
+
+    private static List<Shipment> shipments(User user, int count) {
+        Shipment.ShipmentStatus[] statuses = Shipment.ShipmentStatus.values();
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        // Spread over 120 days, a little past the report period on both sides
+        long minutesPerShipment = Math.max(1, 120L * 24 * 60 / count);
+        List<Shipment> shipments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Shipment.ShipmentStatus status = statuses[(i * 7 + i / 3) % statuses.length];
+            LocalDateTime createdAt = base.plusMinutes(i * minutesPerShipment);
+            shipments.add(Shipment.builder()
+                .id(1000L + i)
+                .trackingNumber(String.format("94001%016d", 17_000_000L + i) + (i % 10))
+                .user(user)
+                .recipientName("Recipient " + i)
+                .recipientAddress((100 + i) + " Main Street, Apt " + (i % 12))
+                .recipientCity("Springfield")
+                .recipientState("IL")
+                .recipientZipCode(String.format("62%03d", i % 1000))
+                .status(status)
+                .createdAt(createdAt)
+                .updatedAt(createdAt.plusHours(6))
+                .deliveredAt(status == Shipment.ShipmentStatus.DELIVERED ? createdAt.plusDays(2) : null)
+                .build());
+        }
+        return shipments;
+    }
+
+    @FunctionalInterface
+    private interface StubQuery {
+        Object answer(String method, Object[] args);
+    }
+}
@@ -0,0 +1,119 @@
+package com.usps.portal.benchmark;
+
+import com.usps.portal.dto.TrackingView;
+import com.usps.portal.dto.TrackingViewRow;
+import com.usps.portal.model.Shipment;
+import com.usps.portal.model.TrackingEventLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a delivered shipment's {@link TrackingView} from one join row per event versus one row carrying the
+ * compacted {@link TrackingEventLog}, plus the cost of encoding a history. Stored bytes per shipment (event row
+ * columns versus the log) are printed once per trial; Postgres adds roughly 28 bytes of tuple header and line
+ * pointer plus two index entries per event row on top of the column bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackingEventLogBenchmark {
+
+    private static final String[][] SCANS = {
+        {"Origin Facility", "Shipment created and pending pickup"},
+        {"SPRINGFIELD IL 62701", "Accepted at USPS Origin Facility"},
+        {"CHICAGO IL DISTRIBUTION CENTER", "Arrived at USPS Regional Facility"},
+        {"CHICAGO IL DISTRIBUTION CENTER", "Departed USPS Regional Facility"},
+        {"CHICAGO IL NETWORK DISTRIBUTION CENTER", "In Transit to Next Facility"},
+        {"INDIANAPOLIS IN DISTRIBUTION CENTER", "Arrived at USPS Regional Facility"},
+        {"INDIANAPOLIS IN DISTRIBUTION CENTER", "Departed USPS Regional Facility"},
+        {"COLUMBUS OH 43215", "Arrived at Post Office"},
+        {"COLUMBUS OH 43215", "Out for Delivery"},
+        {"COLUMBUS OH 43215", "Delivered, In/At Mailbox"},
+    };
+
+    @Param({"5", "10", "30"})
+    public int eventCount;
+
+    private List<TrackingEventLog.Entry> entries;
+    private List<TrackingViewRow> eventRows;
+    private List<TrackingViewRow> logRow;
+    private byte[] log;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 2, 1, 9, 30, 12, 345_678_000);
+        entries = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            // Long histories repeat the middle hops, as re-routed parcels do
+            String[] scan = SCANS[i == 0 ? 0 : i == eventCount - 1 ? SCANS.length - 1 : 1 + (i - 1) % (SCANS.length - 2)];
+            LocalDateTime eventTime = createdAt.plusMinutes(317L * i).plusNanos(123_456_000L * i);
+            entries.add(new TrackingEventLog.Entry(scan[0], scan[1], eventTime, eventTime.plusSeconds(2)));
+        }
+        log = TrackingEventLog.encode(entries);
+        LocalDateTime deliveredAt = entries.get(entries.size() - 1).eventTime();
+
+        eventRows = new ArrayList<>(eventCount);
+        for (int i = eventCount - 1; i >= 0; i--) {
+            TrackingEventLog.Entry entry = entries.get(i);
+            eventRows.add(row(createdAt, deliveredAt, null, entry.location(), entry.description(), entry.eventTime()));
+        }
+        logRow = List.of(row(createdAt, deliveredAt, log, null, null, null));
+
+        TrackingView fromRows = TrackingView.fromRows(eventRows).values().iterator().next();
+        TrackingView fromLog = TrackingView.fromRows(logRow).values().iterator().next();
+        if (!fromRows.equals(fromLog)) {
+            throw new IllegalStateException("Event log does not reproduce the event rows");
+        }
+
+        long rowBytes = 0;
+        for (TrackingEventLog.Entry entry : entries) {
+            // id, shipment_id, eventTime, createdAt plus the two varchar values with their 1-byte headers
+            rowBytes += 4 * Long.BYTES + 2
+                + entry.location().getBytes(StandardCharsets.UTF_8).length
+                + entry.description().getBytes(StandardCharsets.UTF_8).length;
+        }
+        System.out.printf("%n[size] events=%d rowColumnBytes=%d eventLogBytes=%d%n", eventCount, rowBytes, log.length);
+    }
+
+    @Benchmark
+    public Map<String, TrackingView> foldEventRows() {
+        return TrackingView.fromRows(eventRows);
+    }
+
+    @Benchmark
+    public Map<String, TrackingView> decodeEventLog() {
+        return TrackingView.fromRows(logRow);
+    }
+
+    @Benchmark
+    public byte[] encodeEventLog() {
+        return TrackingEventLog.encode(entries);
+    }
+
+    private static TrackingViewRow row(LocalDateTime createdAt, LocalDateTime deliveredAt, byte[] eventLog,
+                                       String location, String description, LocalDateTime eventTime) {
+        return new TrackingViewRow("9400100000017000000010", 42L, Shipment.ShipmentStatus.DELIVERED,
+            "Recipient", "100 Main Street", "Springfield", "IL", "62701", createdAt, deliveredAt, deliveredAt,
+            eventLog, location, description, eventTime);
+    }
+}
@@ -0,0 +1,70 @@
+package com.usps.portal.benchmark;
+
+import com.usps.portal.service.TrackingNumberGenerator;
+import com.usps.portal.service.TrackingNumbers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous UUID-based tracking numbers with {@link TrackingNumberGenerator}, single-threaded
+ * and with eight threads sharing one generator, plus check-digit validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackingNumberGeneratorBenchmark {
+
+    private TrackingNumberGenerator generator;
+    private String valid;
+    private String typo;
+
+    @Setup
+    public void setup() {
+        generator = new TrackingNumberGenerator(42);
+        valid = generator.next();
+        char last = valid.charAt(valid.length() - 1);
+        typo = valid.substring(0, valid.length() - 1) + (char) ('0' + (last - '0' + 1) % 10);
+    }
+
+    @Benchmark
+    public String legacyUuid() {
+        return "USPS" + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
+    }
+
+    @Benchmark
+    public String generate() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateContended() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String legacyUuidContended() {
+        return legacyUuid();
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return TrackingNumbers.isValid(valid) & !TrackingNumbers.isValid(typo);
+    }
+}
@@ -0,0 +1,54 @@
+import { useAuthStore } from '../stores/auth'
+
+// EventSource cannot send the Authorization header, so the stream is read with fetch.
+// Returns a function that closes the stream; reconnects with a delay until closed.
+export function subscribeToUpdates(path, onUpdate, retryDelay = 5000) {
+  const controller = new AbortController()
+  let closed = false
+
+  const connect = async () => {
+    const authStore = useAuthStore()
+    try {
+      const response = await fetch(`/api${path}`, {
+        headers: {
+          Accept: 'text/event-stream',
+          Authorization: `Bearer ${authStore.token}`
+        },
+        signal: controller.signal
+      })
+      if (!response.ok) {
+        // Missing or foreign shipments will not start streaming on retry
+        if (response.status === 403 || response.status === 404) closed = true
+        return
+      }
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+      let buffer = ''
+      while (true) {
+        const { value, done } = await reader.read()
+        if (done) break
+        buffer += value
+        let boundary
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+          const frame = buffer.slice(0, boundary)
+          buffer = buffer.slice(boundary + 2)
+          const data = frame
+            .split('\n')
+            .filter(line => line.startsWith('data:'))
+            .map(line => line.slice(5).trimStart())
+            .join('\n')
+          if (data) onUpdate(JSON.parse(data))
+        }
+      }
+    } catch (error) {
+      if (error.name === 'AbortError') return
+    }
+    if (!closed) setTimeout(connect, retryDelay)
+  }
+
+  connect()
+  return () => {
+    closed = true
+    controller.abort()
+  }
+}
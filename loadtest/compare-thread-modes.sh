@@ -0,0 +1,106 @@
+#!/bin/bash
+# Compares p99 latency and sustainable concurrency of platform-thread and virtual-thread modes.
+#
+# Needs: Postgres and Redis running (docker compose up -d postgres redis), a built backend jar
+# (cd backend && mvn package -DskipTests), a Java 21 runtime, curl, python3 and hey
+# (https://github.com/rakyll/hey). Results are written to loadtest/results/.
+#
+# Usage: loadtest/compare-thread-modes.sh [concurrency levels...]   (default: 50 200 800 2000 4000)
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$(ls "$ROOT"/backend/target/*-exec.jar | head -1)"
+PORT="${PORT:-8081}"
+BASE_URL="http://localhost:$PORT"
+DURATION="${DURATION:-30s}"
+P99_SLO_MS="${P99_SLO_MS:-1000}"
+MAX_ERROR_PCT="${MAX_ERROR_PCT:-1}"
+LEVELS=("${@:-50 200 800 2000 4000}")
+LEVELS=(${LEVELS[*]})
+RESULTS_DIR="$ROOT/loadtest/results"
+REPORT="$RESULTS_DIR/thread-modes-$(date +%Y%m%d-%H%M%S).md"
+
+mkdir -p "$RESULTS_DIR"
+java -version 2>&1 | head -1 | grep -qE '"(2[1-9]|[3-9][0-9])' || { echo "Java 21+ is required"; exit 1; }
+command -v hey >/dev/null || { echo "hey is required: go install github.com/rakyll/hey@latest"; exit 1; }
+
+start_backend() {
+  local profile="$1"
+  SPRING_PROFILES_ACTIVE="$profile" java -jar "$JAR" \
+    --server.port="$PORT" \
+    --management.server.port=0 \
+    --tracking-number.node-id=0 \
+    --rate-limit.enabled=false \
+    --logging.level.com.usps=WARN \
+    --logging.level.org.springframework.security=WARN \
+    --logging.level.org.springframework.cache=WARN \
+    > "$RESULTS_DIR/backend-${profile:-platform}.log" 2>&1 &
+  BACKEND_PID=$!
+  for _ in $(seq 1 60); do
+    curl -sf "$BASE_URL/readyz" >/dev/null && return 0
+    sleep 2
+  done
+  echo "Backend did not start, see $RESULTS_DIR/backend-${profile:-platform}.log"
+  exit 1
+}
+
+stop_backend() {
+  kill "$BACKEND_PID" 2>/dev/null || true
+  wait "$BACKEND_PID" 2>/dev/null || true
+}
+trap stop_backend EXIT
+
+seed() {
+  local email="load$(date +%s%N)@example.com"
+  TOKEN=$(curl -sf -X POST "$BASE_URL/api/auth/register" -H "Content-Type: application/json" \
+    -d "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"$email\",\"password\":\"load-test\"}" \
+    | python3 -c "import sys, json; print(json.load(sys.stdin)['token'])")
+  TRACKING=$(curl -sf -X POST "$BASE_URL/api/tracking/create" -H "Content-Type: application/json" \
+    -H "Authorization: Bearer $TOKEN" \
+    -d '{"recipientName":"Load Test","recipientAddress":"1 Main St","recipientCity":"New York","recipientState":"NY","recipientZipCode":"10001"}' \
+    | python3 -c "import sys, json; print(json.load(sys.stdin)['trackingNumber'])")
+}
+
+# Prints: p99_ms requests_per_sec error_pct
+run_level() {
+  local concurrency="$1"
+  hey -z "$DURATION" -c "$concurrency" -H "Authorization: Bearer $TOKEN" \
+    "$BASE_URL/api/tracking/$TRACKING" | awk '
+      /99% in/ { p99 = $3 * 1000 }
+      /Requests\/sec/ { rps = $2 }
+      /^\s*\[[0-9]+\]/ { code = substr($1, 2, 3); total += $2; if (code != "200") errors += $2 }
+      END { printf "%.1f %.1f %.2f\n", p99, rps, total ? errors * 100 / total : 100 }'
+}
+
+{
+  echo "# Platform vs virtual threads: GET /api/tracking/{trackingNumber}"
+  echo
+  echo "$(date -u +%Y-%m-%dT%H:%M:%SZ), $(java -version 2>&1 | head -1), $DURATION per level,"
+  echo "max concurrency = highest level with p99 <= ${P99_SLO_MS} ms and errors <= ${MAX_ERROR_PCT}%"
+  echo
+  echo "| Mode | Concurrency | p99 (ms) | Requests/s | Errors (%) |"
+  echo "|------|-------------|----------|------------|------------|"
+} > "$REPORT"
+
+for mode in platform virtual-threads; do
+  profile=""
+  [ "$mode" = "virtual-threads" ] && profile="virtual-threads"
+  echo "=== $mode ==="
+  start_backend "$profile"
+  seed
+  hey -z 5s -c 20 -H "Authorization: Bearer $TOKEN" "$BASE_URL/api/tracking/$TRACKING" >/dev/null # warm-up
+  max_ok=0
+  for level in "${LEVELS[@]}"; do
+    read -r p99 rps errors < <(run_level "$level")
+    echo "c=$level p99=${p99}ms rps=$rps errors=${errors}%"
+    echo "| $mode | $level | $p99 | $rps | $errors |" >> "$REPORT"
+    if awk -v p="$p99" -v e="$errors" -v slo="$P99_SLO_MS" -v max="$MAX_ERROR_PCT" 'BEGIN { exit !(p <= slo && e <= max) }'; then
+      max_ok="$level"
+    fi
+  done
+  echo "| $mode | **max sustainable: $max_ok** | | | |" >> "$REPORT"
+  stop_backend
+done
+
+echo "Report written to $REPORT"
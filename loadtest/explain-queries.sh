@@ -0,0 +1,38 @@
+#!/bin/bash
+# Verifies that every repository query is served by an index on a realistically sized dataset.
+#
+# Creates a scratch database (never the application's), applies backend/src/main/resources/db/migration
+# in version order, seeds it and EXPLAIN ANALYZEs each query in loadtest/explain-queries.sql. Fails if
+# any plan falls back to a sequential scan. Plans are written to loadtest/results/.
+#
+# Needs: Postgres running (docker compose up -d postgres). Override PSQL to use a local client, e.g.
+#   PSQL="psql -h localhost -U postgres" loadtest/explain-queries.sh
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+DB="${EXPLAIN_DB:-usps_portal_explain}"
+PSQL="${PSQL:-docker compose -f $ROOT/docker-compose.yml exec -T postgres psql -U postgres}"
+RESULTS_DIR="$ROOT/loadtest/results"
+REPORT="$RESULTS_DIR/explain-$(date +%Y%m%d-%H%M%S).log"
+
+psql_run() {
+  $PSQL -X -q -v ON_ERROR_STOP=1 "$@"
+}
+
+mkdir -p "$RESULTS_DIR"
+psql_run -d postgres -c "DROP DATABASE IF EXISTS $DB" -c "CREATE DATABASE $DB"
+for migration in $(ls "$ROOT"/backend/src/main/resources/db/migration/V*.sql | sort -V); do
+  psql_run -d "$DB" < "$migration"
+done
+
+echo "Seeding and explaining (this takes a minute)..."
+psql_run -d "$DB" --echo-queries < "$ROOT/loadtest/explain-queries.sql" > "$REPORT"
+psql_run -d postgres -c "DROP DATABASE $DB"
+
+# Empty (zero-page) tracking_events partitions are always seq-scanned; that costs nothing
+if grep -n "Seq Scan" "$REPORT" | grep -v "cost=0\.00\.\.0\.00 "; then
+  echo "FAIL: sequential scan in a repository query plan, see $REPORT"
+  exit 1
+fi
+echo "OK: every repository query uses an index, plans in $REPORT"
@@ -0,0 +1,177 @@
+-- Seeds a scratch database migrated by db/migration and EXPLAINs every repository query with
+-- representative parameters. Run through loadtest/explain-queries.sh.
+--
+-- Not explained because they read whole tables by design: ShipmentRepository.streamAllTrackingNumbers
+-- (Bloom filter rebuild) and ShipmentDailyRollupRepository.rebuildFromShipments (rollup backfill).
+
+-- 2,000 users, 200,000 shipments over ~140 days, 5 events per shipment
+INSERT INTO users (id, email, first_name, last_name, password, role)
+SELECT g, 'user' || g || '@example.com', 'First', 'Last', 'x', 'USER'
+FROM generate_series(1, 2000) g;
+
+INSERT INTO shipments (id, tracking_number, user_id, recipient_name, recipient_address, recipient_city,
+                       recipient_state, recipient_zip_code, status, created_at, updated_at, delivered_at)
+SELECT g,
+       '94' || lpad(g::text, 20, '0'),
+       1 + g % 2000,
+       'Recipient ' || g,
+       g || ' Main Street',
+       'Springfield',
+       'IL',
+       '62701',
+       (ARRAY['PENDING', 'IN_TRANSIT', 'OUT_FOR_DELIVERY', 'DELIVERED', 'EXCEPTION'])[1 + g % 5],
+       timestamp '2026-01-01' + g * interval '1 minute',
+       timestamp '2026-01-01' + g * interval '1 minute' + interval '1 day',
+       CASE WHEN g % 5 = 3 THEN timestamp '2026-01-01' + g * interval '1 minute' + interval '2 days' END
+FROM generate_series(1, 200000) g;
+
+-- Monthly partitions for the seeded event times; V4 only creates them from the migration date onwards
+SELECT create_tracking_events_partition(month::date)
+FROM generate_series(timestamp '2026-01-01', timestamp '2026-05-01', interval '1 month') AS month;
+
+INSERT INTO tracking_events (id, shipment_id, location, description, event_time, created_at)
+SELECT (s - 1) * 5 + e,
+       s,
+       'Facility ' || e,
+       'Arrived at facility',
+       timestamp '2026-01-01' + s * interval '1 minute' + e * interval '6 hours',
+       timestamp '2026-01-01' + s * interval '1 minute' + e * interval '6 hours'
+FROM generate_series(1, 200000) s, generate_series(1, 5) e;
+
+INSERT INTO shipment_daily_rollups (user_id, rollup_date, status, shipment_count)
+SELECT user_id, CAST(created_at AS date), status, COUNT(*)
+FROM shipments
+GROUP BY user_id, CAST(created_at AS date), status;
+
+VACUUM ANALYZE;
+
+-- UserRepository.findByEmail
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM users WHERE email = 'user42@example.com';
+
+-- ShipmentRepository.lockByTrackingNumber (status updates)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM shipments WHERE tracking_number = '9400000000000000012345' FOR UPDATE;
+
+-- ShipmentRepository.lockByTrackingNumberIn (scan ingestion)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM shipments
+WHERE tracking_number IN ('9400000000000000012345', '9400000000000000054321', '9400000000000000199999')
+ORDER BY id FOR UPDATE;
+
+-- ShipmentRepository.findTrackingViewRows (tracking page and multi-number lookup)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT s.tracking_number, s.user_id, s.status, s.recipient_name, s.recipient_address, s.recipient_city,
+       s.recipient_state, s.recipient_zip_code, s.created_at, s.updated_at, s.delivered_at, s.event_log,
+       e.location, e.description, e.event_time
+FROM shipments s
+LEFT JOIN tracking_events e ON e.shipment_id = s.id
+WHERE s.tracking_number IN ('9400000000000000012345', '9400000000000000054321', '9400000000000000199999')
+ORDER BY s.tracking_number, e.event_time DESC;
+
+-- ShipmentRepository.findByUser
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM shipments WHERE user_id = 42;
+
+-- ShipmentRepository.findSummaries: first page of the owner listing
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, tracking_number, user_id, recipient_name, recipient_address, recipient_city, recipient_state,
+       recipient_zip_code, status, created_at, updated_at, delivered_at
+FROM shipments
+WHERE user_id = 42
+ORDER BY created_at DESC, id DESC
+LIMIT 21;
+
+-- ShipmentRepository.findSummaries: next page after a keyset cursor
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, tracking_number, user_id, recipient_name, recipient_address, recipient_city, recipient_state,
+       recipient_zip_code, status, created_at, updated_at, delivered_at
+FROM shipments
+WHERE user_id = 42
+  AND (created_at < timestamp '2026-03-01' OR (created_at = timestamp '2026-03-01' AND id < 84042))
+ORDER BY created_at DESC, id DESC
+LIMIT 21;
+
+-- ShipmentRepository.findSummaries: status filter and date range
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, tracking_number, user_id, recipient_name, recipient_address, recipient_city, recipient_state,
+       recipient_zip_code, status, created_at, updated_at, delivered_at
+FROM shipments
+WHERE user_id = 42 AND status = 'DELIVERED'
+  AND created_at >= timestamp '2026-02-01' AND created_at < timestamp '2026-04-01'
+ORDER BY created_at DESC, id DESC
+LIMIT 21;
+
+-- ShipmentRepository.findByUserAndDateRange
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM shipments
+WHERE user_id = 42 AND created_at BETWEEN timestamp '2026-02-01' AND timestamp '2026-03-01';
+
+-- ShipmentRepository.findSummariesByUserAndDateRange (report page)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, tracking_number, user_id, recipient_name, recipient_address, recipient_city, recipient_state,
+       recipient_zip_code, status, created_at, updated_at, delivered_at
+FROM shipments
+WHERE user_id = 42 AND created_at BETWEEN timestamp '2026-02-01' AND timestamp '2026-03-01'
+ORDER BY created_at DESC
+OFFSET 0 LIMIT 51;
+
+-- ShipmentRepository.streamExportRows
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT tracking_number, recipient_name, recipient_address, recipient_city, recipient_state, recipient_zip_code,
+       status, created_at, updated_at, delivered_at
+FROM shipments
+WHERE user_id = 42 AND created_at BETWEEN timestamp '2026-01-01' AND timestamp '2026-06-01'
+ORDER BY created_at;
+
+-- ShipmentRepository.countByStatus
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT status, COUNT(*) FROM shipments WHERE user_id = 42 GROUP BY status;
+
+-- ShipmentRepository.countByStatusAndDateRange
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT status, COUNT(*) FROM shipments
+WHERE user_id = 42 AND created_at BETWEEN timestamp '2026-02-01' AND timestamp '2026-03-01'
+GROUP BY status;
+
+-- ShipmentRepository.countByStatusCreatedFromUntil
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT status, COUNT(*) FROM shipments
+WHERE user_id = 42 AND created_at >= timestamp '2026-02-01 10:30' AND created_at < timestamp '2026-02-02'
+GROUP BY status;
+
+-- ShipmentRepository.findTrackingNumbersCreatedSince (Bloom filter catch-up)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT tracking_number FROM shipments WHERE created_at >= timestamp '2026-05-18';
+
+-- ShipmentDailyRollupRepository.sumByStatus
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT status, SUM(shipment_count) FROM shipment_daily_rollups WHERE user_id = 42 GROUP BY status;
+
+-- ShipmentDailyRollupRepository.sumByStatusAndDays
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT status, SUM(shipment_count) FROM shipment_daily_rollups
+WHERE user_id = 42 AND rollup_date >= date '2026-02-01' AND rollup_date < date '2026-03-01'
+GROUP BY status;
+
+-- ShipmentDailyRollupRepository.increment (rolled back)
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS)
+INSERT INTO shipment_daily_rollups (user_id, rollup_date, status, shipment_count)
+VALUES (42, date '2026-02-01', 'PENDING', 1)
+ON CONFLICT (user_id, rollup_date, status)
+DO UPDATE SET shipment_count = shipment_daily_rollups.shipment_count + EXCLUDED.shipment_count;
+ROLLBACK;
+
+-- TrackingEventCompactionJob: pick a batch (rolled back to keep the locks short)
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM shipments
+WHERE status = 'DELIVERED' AND event_log IS NULL AND delivered_at < timestamp '2026-03-01'
+ORDER BY delivered_at LIMIT 500 FOR UPDATE SKIP LOCKED;
+ROLLBACK;
+
+-- TrackingEventCompactionJob: read the batch's events
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, shipment_id, location, description, event_time, created_at FROM tracking_events
+WHERE shipment_id = ANY (ARRAY(SELECT generate_series(3, 2500, 5)::bigint));
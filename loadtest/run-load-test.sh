@@ -0,0 +1,25 @@
+#!/bin/bash
+# Builds the backend and the load test module and runs the load test: the backend is booted in-process against an
+# embedded Postgres and a Redis stand-in, seeded, and driven at a fixed request rate. Writes a summary JSON and
+# per-operation latency distributions to loadtest/results/ and exits 1 when p99 or throughput regressed against
+# the committed loadtest/baselines/reference.json, that baseline is missing, or too many requests failed.
+#
+# Needs: Java 17+ and Maven, run as a regular user (Postgres refuses to start as root). Set SKIP_BUILD=1 to reuse
+# the last build and LOAD_TEST_JVM_ARGS to change the JVM flags. Arguments go to the load test, see --help.
+#
+# Usage: loadtest/run-load-test.sh [--rate=20] [--duration=60s] [--mix=track:60,...] [--update-baseline]
+#        loadtest/run-load-test.sh --target=http://localhost:8080 ...   (against a running backend)
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+LOAD_TEST_JVM_ARGS="${LOAD_TEST_JVM_ARGS:--Xms1g -Xmx1g}"
+
+if [ "${SKIP_BUILD:-0}" != "1" ]; then
+  (cd "$ROOT/backend" && mvn -B -q install -DskipTests)
+  (cd "$ROOT/loadtest" && mvn -B -q package)
+fi
+
+# Relative --results-dir and --baseline paths resolve against the repository root
+cd "$ROOT"
+exec java $LOAD_TEST_JVM_ARGS -jar "$ROOT/loadtest/target/load-test.jar" "$@"
@@ -0,0 +1,221 @@
+package com.usps.portal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.usps.portal.CustomerPortalApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the backend against an embedded Postgres and the {@link RedisStandIn} (or targets a running one with
+ * {@code --target}), seeds users and shipments, then sends the configured traffic mix at a fixed rate: a warm-up
+ * phase followed by the measured phase. Requests are scheduled on an open model, one every 1/rate seconds
+ * whether or not earlier ones have completed, so a slow server faces the same offered load a real one would.
+ *
+ * <p>The summary JSON and per-operation percentile distributions go to the results directory. The run fails
+ * (exit code 1) when the error rate is too high, p99 or throughput regressed against the baseline, or there is no
+ * baseline to compare with.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (List.of(args).contains("--help")) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        Map<String, Object> run;
+        if (options.target() != null) {
+            run = run(options, URI.create(options.target()), client, objectMapper);
+        } else {
+            if ("root".equals(System.getProperty("user.name"))) {
+                throw new IllegalStateException("Postgres refuses to run as root: run the load test as a regular user "
+                    + "or point it at a running backend with --target");
+            }
+            Path archive = Files.createTempDirectory("load-test-tracking-archive");
+            try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+                 RedisStandIn redis = new RedisStandIn();
+                 ConfigurableApplicationContext application = boot(postgres, redis, archive)) {
+                int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+                run = run(options, URI.create("http://127.0.0.1:" + port), client, objectMapper);
+            }
+        }
+
+        List<String> failures = check(options, run, objectMapper);
+        if (!failures.isEmpty()) {
+            System.out.println("FAIL:");
+            failures.forEach(failure -> System.out.println("  " + failure));
+            System.exit(1);
+        }
+        System.out.println("OK");
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext boot(EmbeddedPostgres postgres, RedisStandIn redis, Path archive) {
+        // Command line arguments, so they take precedence over the application.yml packaged with the backend
+        return new SpringApplicationBuilder(CustomerPortalApplication.class).run(
+            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=",
+            "--spring.data.redis.host=127.0.0.1",
+            "--spring.data.redis.port=" + redis.getPort(),
+            "--spring.main.banner-mode=off",
+            "--server.port=0",
+            "--management.server.port=0",
+            "--tracking-number.node-id=0",
+            // Every load test user shares one address, and the stand-in has no Lua for distributed buckets
+            "--rate-limit.enabled=false",
+            "--rate-limit.distributed=false",
+            "--tracking-events.retention.archive-directory=" + archive,
+            "--logging.level.root=WARN");
+    }
+
+    private static Map<String, Object> run(LoadTestOptions options, URI baseUri, HttpClient client,
+                                           ObjectMapper objectMapper) throws Exception {
+        System.out.printf("Seeding %d users with %d shipments each against %s%n",
+            options.users(), options.shipmentsPerUser(), baseUri);
+        Traffic traffic = Traffic.seed(client, baseUri, objectMapper, options.users(), options.shipmentsPerUser());
+
+        System.out.printf("Sending %.0f requests/s: %s warm-up, then %s measured%n",
+            options.rate(), options.warmup(), options.duration());
+        Results results = new Results();
+        drive(options, traffic, client, results);
+
+        Path resultsDir = options.resultsDir();
+        Files.createDirectories(resultsDir);
+        Path prefix = resultsDir.resolve("load-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Map<String, Object> run = results.summarize(options, options.duration(), prefix);
+        Path summary = Path.of(prefix + ".json");
+        objectMapper.writeValue(summary.toFile(), run);
+
+        print(run);
+        System.out.println("Summary written to " + summary);
+        return run;
+    }
+
+    private static void drive(LoadTestOptions options, Traffic traffic, HttpClient client, Results results) {
+        Operation[] operations = options.mix().keySet().toArray(new Operation[0]);
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += options.mix().get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+            Operation operation = operations[index];
+            HttpRequest request = traffic.request(operation, random);
+            boolean measured = intended >= measureFrom;
+
+            // A full window delays the send but not the intended time, so the wait shows up as latency
+            inFlight.acquireUninterruptibly();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long completed = System.nanoTime();
+                inFlight.release();
+                if (measured) {
+                    results.record(operation, intended, sent, completed, error == null ? response.statusCode() : -1);
+                }
+            });
+        }
+
+        long drainTimeout = Traffic.REQUEST_TIMEOUT.plusSeconds(5).toMillis();
+        try {
+            if (!inFlight.tryAcquire(options.maxInFlight(), drainTimeout, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Requests still in flight " + drainTimeout + " ms after the run ended");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the last requests", e);
+        }
+    }
+
+    private static List<String> check(LoadTestOptions options, Map<String, Object> run,
+                                      ObjectMapper objectMapper) throws IOException {
+        if (options.updateBaseline()) {
+            Files.createDirectories(options.baseline().toAbsolutePath().getParent());
+            objectMapper.writeValue(options.baseline().toFile(), run);
+            System.out.println("Baseline written to " + options.baseline());
+            return Results.regressions(run, null, options, objectMapper);
+        }
+        // Without a baseline there is nothing to catch a regression with, so that is a failure rather than a pass
+        if (!Files.exists(options.baseline())) {
+            List<String> failures = new ArrayList<>(Results.regressions(run, null, options, objectMapper));
+            failures.add("no baseline at " + options.baseline() + "; record one with --update-baseline");
+            return failures;
+        }
+        JsonNode baseline = objectMapper.readTree(options.baseline().toFile());
+        if (!baseline.path("machine").equals(objectMapper.valueToTree(run.get("machine")))) {
+            System.out.println("The baseline was recorded on " + baseline.path("machine") + ", this run is on "
+                + objectMapper.valueToTree(run.get("machine")) + "; p99 and throughput only compare roughly");
+        }
+        return Results.regressions(run, baseline, options, objectMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> run) {
+        System.out.printf("%nThroughput %.1f/s of %.1f/s offered%n", run.get("throughput"), run.get("offeredRate"));
+        System.out.printf("%-14s %9s %7s %9s %9s %9s %9s %9s %12s%n",
+            "operation", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) run.get("operations"));
+        rows.put("all", run.get("all"));
+        rows.forEach((name, value) -> {
+            Map<String, Object> row = (Map<String, Object>) value;
+            System.out.printf("%-14s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n", name,
+                row.get("requests"), row.get("errors"), row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"),
+                row.get("p999Ms"), row.get("maxMs"), row.get("serviceTimeP99Ms"));
+        });
+    }
+}
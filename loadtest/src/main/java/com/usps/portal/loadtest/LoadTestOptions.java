@@ -0,0 +1,128 @@
+package com.usps.portal.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, all {@code --name=value}. Durations use the application.yml style ({@code 30s}, {@code 2m}).
+ */
+public record LoadTestOptions(
+    double rate,
+    Duration duration,
+    Duration warmup,
+    int users,
+    int shipmentsPerUser,
+    Map<Operation, Integer> mix,
+    int maxInFlight,
+    String target,
+    Path resultsDir,
+    Path baseline,
+    boolean updateBaseline,
+    double p99Tolerance,
+    double throughputTolerance,
+    double maxErrorRate
+) {
+
+    static final String USAGE = """
+        Options (all --name=value):
+          --rate=20                     requests per second, spread evenly (open model)
+          --duration=60s                measured phase
+          --warmup=15s                  same traffic before measuring, not recorded
+          --users=20                    seeded users, each with --shipments-per-user shipments
+          --shipments-per-user=25
+          --mix=track:60,my-shipments:20,create:8,report:7,login:5
+          --max-in-flight=1000          outstanding requests; late sends still count from their intended time
+          --target=http://host:port     run against a running backend instead of booting one
+          --results-dir=loadtest/results
+          --baseline=loadtest/baselines/reference.json
+                                        a run without a baseline file fails
+          --update-baseline             store this run as the baseline instead of checking against it
+          --p99-tolerance=0.25          fail if an operation's p99 grows by more than this fraction
+                                        (its p90 when it had fewer than 200 requests)
+          --throughput-tolerance=0.10   fail if throughput drops by more than this fraction
+          --max-error-rate=0.01         fail if more than this fraction of requests fail
+        """;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(separator < 0 ? arg.substring(2) : arg.substring(2, separator),
+                separator < 0 ? "true" : arg.substring(separator + 1));
+        }
+
+        // Each option is removed as it is read, so whatever is left over was misspelt
+        LoadTestOptions options = new LoadTestOptions(
+            Double.parseDouble(take(values, "rate", "20")),
+            DurationStyle.detectAndParse(take(values, "duration", "60s")),
+            DurationStyle.detectAndParse(take(values, "warmup", "15s")),
+            Integer.parseInt(take(values, "users", "20")),
+            Integer.parseInt(take(values, "shipments-per-user", "25")),
+            parseMix(take(values, "mix", "track:60,my-shipments:20,create:8,report:7,login:5")),
+            Integer.parseInt(take(values, "max-in-flight", "1000")),
+            take(values, "target", null),
+            Path.of(take(values, "results-dir", "loadtest/results")),
+            Path.of(take(values, "baseline", "loadtest/baselines/reference.json")),
+            Boolean.parseBoolean(take(values, "update-baseline", "false")),
+            Double.parseDouble(take(values, "p99-tolerance", "0.25")),
+            Double.parseDouble(take(values, "throughput-tolerance", "0.10")),
+            Double.parseDouble(take(values, "max-error-rate", "0.01")));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        if (options.rate <= 0 || options.users <= 0 || options.shipmentsPerUser <= 0 || options.maxInFlight <= 0) {
+            throw new IllegalArgumentException("--rate, --users, --shipments-per-user and --max-in-flight must be positive");
+        }
+        if (options.shipmentsPerUser > 1000) {
+            throw new IllegalArgumentException("--shipments-per-user is seeded in one /api/tracking/batch call, at most 1000");
+        }
+        return options;
+    }
+
+    // Workload settings a baseline is only comparable under
+    Map<String, Object> workload() {
+        Map<String, Object> workload = new LinkedHashMap<>();
+        workload.put("rate", rate);
+        workload.put("duration", duration.toString());
+        workload.put("users", users);
+        workload.put("shipmentsPerUser", shipmentsPerUser);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> weights.put(operation.label(), weight));
+        workload.put("mix", weights);
+        return workload;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("--mix entries look like track:60, got " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in --mix: " + part);
+            }
+            if (weight > 0) {
+                weights.put(Operation.fromLabel(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix has no operation with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,38 @@
+package com.usps.portal.loadtest;
+
+/**
+ * The request types in the traffic mix, named as in {@code --mix} and the results.
+ */
+public enum Operation {
+    LOGIN("login", 200),
+    TRACK("track", 200),
+    MY_SHIPMENTS("my-shipments", 200),
+    CREATE("create", 201),
+    REPORT("report", 200);
+
+    private final String label;
+    private final int expectedStatus;
+
+    Operation(String label, int expectedStatus) {
+        this.label = label;
+        this.expectedStatus = expectedStatus;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public int expectedStatus() {
+        return expectedStatus;
+    }
+
+    public static Operation fromLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + label + "', expected one of login, track, "
+            + "my-shipments, create, report");
+    }
+}
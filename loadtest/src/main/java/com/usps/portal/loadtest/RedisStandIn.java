@@ -0,0 +1,487 @@
+package com.usps.portal.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the Redis server, speaking RESP2 on a loopback port. It implements the commands the
+ * backend issues with {@code rate-limit.distributed=false}: strings with expiry for the Redis cache layer, bulk
+ * cache operations and the tracking filter snapshot (including {@code BITOP OR}), key scans for cache clears, pub/sub for near-cache
+ * invalidation, tracking updates and filter additions, and the handshake and health commands. Anything else is
+ * answered with an error so a missing command shows up in the load test's error counts instead of hanging.
+ *
+ * <p>It keeps no persistence, replication or eviction and runs one thread per connection, which is plenty for a
+ * Lettuce client but makes its latency a floor, not an estimate, of a real Redis round trip.
+ */
+public class RedisStandIn implements AutoCloseable {
+
+    private static final byte[] OK = "+OK\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PONG = "+PONG\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EMPTY_ARRAY = "*0\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INFO = ("# Server\r\nredis_version:7.2.0\r\nredis_mode:standalone\r\n")
+        .getBytes(StandardCharsets.US_ASCII);
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> channels = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> patterns = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    private record Entry(byte[] value, long expiresAt) {
+        boolean expired(long now) {
+            return expiresAt != 0 && expiresAt <= now;
+        }
+    }
+
+    public RedisStandIn() throws IOException {
+        serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::accept, "redis-stand-in-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+                Thread thread = new Thread(connection::serve, "redis-stand-in-" + socket.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Redis stand-in stopped accepting connections: " + e);
+                }
+                return;
+            }
+        }
+    }
+
+    private final class Connection {
+
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final Set<String> subscribedChannels = new CopyOnWriteArraySet<>();
+        private final Set<String> subscribedPatterns = new CopyOnWriteArraySet<>();
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+        }
+
+        void serve() {
+            try {
+                while (true) {
+                    List<byte[]> command = readCommand();
+                    synchronized (this) {
+                        execute(command);
+                        // Pipelined commands are answered in one write once the client stops sending
+                        if (in.available() == 0) {
+                            out.flush();
+                        }
+                    }
+                }
+            } catch (EOFException e) {
+                // Client disconnected
+            } catch (IOException e) {
+                if (!closed && !socket.isClosed()) {
+                    System.err.println("Redis stand-in connection failed: " + e);
+                }
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            connections.remove(this);
+            subscribedChannels.forEach(channel -> unsubscribe(channels, channel));
+            subscribedPatterns.forEach(pattern -> unsubscribe(patterns, pattern));
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Already closed
+            }
+        }
+
+        private void unsubscribe(Map<String, Set<Connection>> registry, String name) {
+            registry.computeIfPresent(name, (key, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+
+        private void execute(List<byte[]> command) throws IOException {
+            String name = string(command.get(0)).toUpperCase(Locale.ROOT);
+            long now = System.currentTimeMillis();
+            switch (name) {
+                case "PING" -> {
+                    if (!subscribedChannels.isEmpty() || !subscribedPatterns.isEmpty()) {
+                        writeArray(List.of(bytes("pong"), new byte[0]));
+                    } else {
+                        out.write(PONG);
+                    }
+                }
+                case "ECHO" -> writeBulk(command.get(1));
+                case "HELLO" -> writeError("ERR unknown command 'HELLO'"); // clients fall back to RESP2
+                case "CLIENT", "SELECT" -> out.write(OK);
+                case "INFO" -> writeBulk(INFO);
+                case "QUIT" -> {
+                    out.write(OK);
+                    out.flush();
+                    socket.close();
+                }
+                case "GET" -> writeBulk(get(key(command, 1), now));
+                case "MGET" -> {
+                    List<byte[]> values = new ArrayList<>(command.size() - 1);
+                    for (int i = 1; i < command.size(); i++) {
+                        values.add(get(key(command, i), now));
+                    }
+                    writeArray(values);
+                }
+                case "SET" -> set(command, now);
+                case "SETEX" -> {
+                    data.put(key(command, 1), new Entry(command.get(3), now + 1000 * longArg(command, 2)));
+                    out.write(OK);
+                }
+                case "PSETEX" -> {
+                    data.put(key(command, 1), new Entry(command.get(3), now + longArg(command, 2)));
+                    out.write(OK);
+                }
+                case "DEL", "UNLINK" -> {
+                    long removed = 0;
+                    for (int i = 1; i < command.size(); i++) {
+                        Entry entry = data.remove(key(command, i));
+                        if (entry != null && !entry.expired(now)) {
+                            removed++;
+                        }
+                    }
+                    writeInteger(removed);
+                }
+                case "EXISTS" -> {
+                    long found = 0;
+                    for (int i = 1; i < command.size(); i++) {
+                        if (get(key(command, i), now) != null) {
+                            found++;
+                        }
+                    }
+                    writeInteger(found);
+                }
+                case "PEXPIRE", "EXPIRE" -> {
+                    long ttl = longArg(command, 2) * (name.equals("EXPIRE") ? 1000 : 1);
+                    Entry updated = data.computeIfPresent(key(command, 1),
+                        (key, entry) -> entry.expired(now) ? null : new Entry(entry.value(), now + ttl));
+                    writeInteger(updated != null ? 1 : 0);
+                }
+                case "PTTL", "TTL" -> {
+                    Entry entry = data.get(key(command, 1));
+                    long ttl = entry == null || entry.expired(now) ? -2 : entry.expiresAt() == 0 ? -1
+                        : (entry.expiresAt() - now) / (name.equals("TTL") ? 1000 : 1);
+                    writeInteger(ttl);
+                }
+                case "BITOP" -> bitOp(command, now);
+                case "KEYS" -> writeArray(keys(glob(string(command.get(1))), now));
+                case "SCAN" -> {
+                    // One pass over everything: cursor 0 in, cursor 0 out
+                    Pattern match = null;
+                    for (int i = 2; i + 1 < command.size(); i += 2) {
+                        if (string(command.get(i)).equalsIgnoreCase("MATCH")) {
+                            match = glob(string(command.get(i + 1)));
+                        }
+                    }
+                    out.write("*2\r\n".getBytes(StandardCharsets.US_ASCII));
+                    writeBulk(bytes("0"));
+                    writeArray(keys(match, now));
+                }
+                case "DBSIZE" -> writeInteger(keys(null, now).size());
+                case "FLUSHDB", "FLUSHALL" -> {
+                    data.clear();
+                    out.write(OK);
+                }
+                case "PUBLISH" -> writeInteger(publish(string(command.get(1)), command.get(2)));
+                case "SUBSCRIBE", "PSUBSCRIBE" -> {
+                    boolean pattern = name.equals("PSUBSCRIBE");
+                    for (int i = 1; i < command.size(); i++) {
+                        String channel = string(command.get(i));
+                        (pattern ? subscribedPatterns : subscribedChannels).add(channel);
+                        (pattern ? patterns : channels).computeIfAbsent(channel, key -> new CopyOnWriteArraySet<>()).add(this);
+                        writeSubscription(pattern ? "psubscribe" : "subscribe", channel);
+                    }
+                }
+                case "UNSUBSCRIBE", "PUNSUBSCRIBE" -> {
+                    boolean pattern = name.equals("PUNSUBSCRIBE");
+                    Set<String> subscribed = pattern ? subscribedPatterns : subscribedChannels;
+                    List<String> targets = new ArrayList<>();
+                    for (int i = 1; i < command.size(); i++) {
+                        targets.add(string(command.get(i)));
+                    }
+                    if (targets.isEmpty()) {
+                        targets.addAll(subscribed);
+                    }
+                    for (String channel : targets) {
+                        subscribed.remove(channel);
+                        unsubscribe(pattern ? patterns : channels, channel);
+                        writeSubscription(pattern ? "punsubscribe" : "unsubscribe", channel);
+                    }
+                    if (targets.isEmpty()) {
+                        writeSubscription(pattern ? "punsubscribe" : "unsubscribe", null);
+                    }
+                }
+                default -> writeError("ERR unknown command '" + name + "' (not implemented by the load test's Redis stand-in)");
+            }
+        }
+
+        private void bitOp(List<byte[]> command, long now) throws IOException {
+            if (!string(command.get(1)).equalsIgnoreCase("OR")) {
+                writeError("ERR only BITOP OR is implemented by the load test's Redis stand-in");
+                return;
+            }
+            byte[] result = new byte[0];
+            for (int i = 3; i < command.size(); i++) {
+                byte[] source = get(key(command, i), now);
+                if (source == null) {
+                    continue;
+                }
+                if (source.length > result.length) {
+                    result = Arrays.copyOf(result, source.length);
+                }
+                for (int b = 0; b < source.length; b++) {
+                    result[b] |= source[b];
+                }
+            }
+            data.put(key(command, 2), new Entry(result, 0));
+            writeInteger(result.length);
+        }
+
+        private void set(List<byte[]> command, long now) throws IOException {
+            long expiresAt = 0;
+            boolean nx = false;
+            boolean xx = false;
+            for (int i = 3; i < command.size(); i++) {
+                switch (string(command.get(i)).toUpperCase(Locale.ROOT)) {
+                    case "EX" -> expiresAt = now + 1000 * longArg(command, ++i);
+                    case "PX" -> expiresAt = now + longArg(command, ++i);
+                    case "NX" -> nx = true;
+                    case "XX" -> xx = true;
+                    default -> {
+                        writeError("ERR syntax error");
+                        return;
+                    }
+                }
+            }
+            String key = key(command, 1);
+            Entry entry = new Entry(command.get(2), expiresAt);
+            boolean applied;
+            if (nx) {
+                applied = data.compute(key, (k, existing) -> existing == null || existing.expired(now) ? entry : existing) == entry;
+            } else if (xx) {
+                applied = data.computeIfPresent(key, (k, existing) -> existing.expired(now) ? null : entry) == entry;
+            } else {
+                data.put(key, entry);
+                applied = true;
+            }
+            out.write(applied ? OK : NULL);
+        }
+
+        // Called by other connections' threads; the monitor keeps a message from interleaving with a reply
+        synchronized void push(List<byte[]> message) {
+            try {
+                writeArray(message);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void writeSubscription(String kind, String channel) throws IOException {
+            out.write("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+            writeBulk(bytes(kind));
+            writeBulk(channel != null ? bytes(channel) : null);
+            writeInteger(subscribedChannels.size() + subscribedPatterns.size());
+        }
+
+        private List<byte[]> readCommand() throws IOException {
+            int type = in.read();
+            if (type == -1) {
+                throw new EOFException();
+            }
+            if (type != '*') {
+                throw new IOException("Expected a RESP array, got '" + (char) type + "'");
+            }
+            int count = (int) readLong();
+            List<byte[]> arguments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                if (in.read() != '$') {
+                    throw new IOException("Expected a RESP bulk string");
+                }
+                byte[] argument = new byte[(int) readLong()];
+                int read = 0;
+                while (read < argument.length) {
+                    int n = in.read(argument, read, argument.length - read);
+                    if (n == -1) {
+                        throw new EOFException();
+                    }
+                    read += n;
+                }
+                in.read();
+                in.read();
+                arguments.add(argument);
+            }
+            return arguments;
+        }
+
+        private long readLong() throws IOException {
+            long value = 0;
+            boolean negative = false;
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b == -1) {
+                    throw new EOFException();
+                }
+                if (b == '-') {
+                    negative = true;
+                } else {
+                    value = value * 10 + (b - '0');
+                }
+            }
+            in.read();
+            return negative ? -value : value;
+        }
+
+        private void writeBulk(byte[] value) throws IOException {
+            if (value == null) {
+                out.write(NULL);
+                return;
+            }
+            out.write(('$' + Integer.toString(value.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(value);
+            out.write('\r');
+            out.write('\n');
+        }
+
+        private void writeArray(Collection<byte[]> values) throws IOException {
+            if (values.isEmpty()) {
+                out.write(EMPTY_ARRAY);
+                return;
+            }
+            out.write(('*' + Integer.toString(values.size()) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            for (byte[] value : values) {
+                writeBulk(value);
+            }
+        }
+
+        private void writeInteger(long value) throws IOException {
+            out.write((':' + Long.toString(value) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private void writeError(String message) throws IOException {
+            out.write(('-' + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private byte[] get(String key, long now) {
+        Entry entry = data.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expired(now)) {
+            data.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    private List<byte[]> keys(Pattern pattern, long now) {
+        List<byte[]> keys = new ArrayList<>();
+        data.forEach((key, entry) -> {
+            if (!entry.expired(now) && (pattern == null || pattern.matcher(key).matches())) {
+                keys.add(key.getBytes(StandardCharsets.ISO_8859_1));
+            }
+        });
+        return keys;
+    }
+
+    private long publish(String channel, byte[] payload) {
+        long receivers = 0;
+        byte[] channelBytes = bytes(channel);
+        for (Connection subscriber : channels.getOrDefault(channel, Set.of())) {
+            subscriber.push(List.of(bytes("message"), channelBytes, payload));
+            receivers++;
+        }
+        for (Map.Entry<String, Set<Connection>> pattern : patterns.entrySet()) {
+            if (glob(pattern.getKey()).matcher(channel).matches()) {
+                for (Connection subscriber : pattern.getValue()) {
+                    subscriber.push(List.of(bytes("pmessage"), bytes(pattern.getKey()), channelBytes, payload));
+                    receivers++;
+                }
+            }
+        }
+        return receivers;
+    }
+
+    // Keys are binary-safe: ISO-8859-1 maps every byte to exactly one char and back
+    private static String key(List<byte[]> command, int index) {
+        return new String(command.get(index), StandardCharsets.ISO_8859_1);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static long longArg(List<byte[]> command, int index) {
+        return Long.parseLong(string(command.get(index)));
+    }
+
+    private static Pattern glob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
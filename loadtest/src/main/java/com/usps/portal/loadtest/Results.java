@@ -0,0 +1,179 @@
+package com.usps.portal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation HDR histograms of the measured phase. Latency runs from the moment a request was scheduled to be
+ * sent, not from when it actually went out, so a stalled server is charged for every request it held back
+ * (coordinated omission); service time, from the actual send, is kept next to it to show how far the two diverge.
+ * Values are recorded in microseconds and reported in milliseconds.
+ */
+public class Results {
+
+    // p99 changes below this many milliseconds are noise on a loopback run, whatever the relative change
+    private static final double P99_NOISE_FLOOR_MS = 1.0;
+
+    // Below this many requests the p99 is one of the two slowest and swings by tens of percent run to run, so an
+    // operation this rare is checked on its p90 instead
+    private static final long MIN_REQUESTS_FOR_P99 = 200;
+
+    private final Map<Operation, Recorder> latency = new EnumMap<>(Operation.class);
+    private final Map<Operation, Recorder> serviceTime = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+
+    public Results() {
+        for (Operation operation : Operation.values()) {
+            latency.put(operation, new Recorder(3));
+            serviceTime.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    // status is -1 when the request failed without a response (timeout, connection reset)
+    public void record(Operation operation, long intendedNanos, long sentNanos, long completedNanos, int status) {
+        latency.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos));
+        serviceTime.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - sentNanos));
+        statuses.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status != operation.expectedStatus()) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Builds the run summary and writes it, plus one percentile distribution per operation, to the results
+     * directory. Only call this once every request has completed.
+     */
+    public Map<String, Object> summarize(LoadTestOptions options, Duration measured, Path resultsPrefix) throws IOException {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Histogram allLatency = new Histogram(3);
+        Histogram allServiceTime = new Histogram(3);
+        long allErrors = 0;
+        for (Operation operation : options.mix().keySet()) {
+            Histogram operationLatency = latency.get(operation).getIntervalHistogram();
+            Histogram operationServiceTime = serviceTime.get(operation).getIntervalHistogram();
+            long operationErrors = errors.get(operation).sum();
+            Map<String, Object> summary = summary(operationLatency, operationServiceTime, operationErrors);
+            Map<String, Long> statusCounts = new TreeMap<>();
+            statuses.get(operation).forEach((status, count) -> statusCounts.put(Integer.toString(status), count.sum()));
+            summary.put("statuses", statusCounts);
+            operations.put(operation.label(), summary);
+
+            allLatency.add(operationLatency);
+            allServiceTime.add(operationServiceTime);
+            allErrors += operationErrors;
+            try (PrintStream out = new PrintStream(Files.newOutputStream(
+                    Path.of(resultsPrefix + "-" + operation.label() + ".hgrm")))) {
+                operationLatency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        Map<String, Object> all = summary(allLatency, allServiceTime, allErrors);
+        double seconds = measured.toNanos() / 1e9;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("workload", options.workload());
+        result.put("machine", machine());
+        result.put("offeredRate", round(allLatency.getTotalCount() / seconds));
+        result.put("throughput", round((allLatency.getTotalCount() - allErrors) / seconds));
+        result.put("all", all);
+        result.put("operations", operations);
+        return result;
+    }
+
+    /**
+     * Regressions of this run against the baseline, empty when it passes. Error rate is checked even without one.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String> regressions(Map<String, Object> run, JsonNode baseline, LoadTestOptions options,
+                                           ObjectMapper objectMapper) {
+        List<String> failures = new ArrayList<>();
+        Map<String, Object> all = (Map<String, Object>) run.get("all");
+        if ((double) all.get("errorRate") > options.maxErrorRate()) {
+            failures.add(String.format("error rate %.2f%% exceeds %.2f%%",
+                100 * (double) all.get("errorRate"), 100 * options.maxErrorRate()));
+        }
+        if (baseline == null) {
+            return failures;
+        }
+        if (!baseline.get("workload").equals(objectMapper.valueToTree(run.get("workload")))) {
+            failures.add("the baseline was recorded with a different workload " + baseline.get("workload")
+                + "; rerun with --update-baseline to replace it");
+            return failures;
+        }
+
+        double throughput = (double) run.get("throughput");
+        double baselineThroughput = baseline.get("throughput").asDouble();
+        if (throughput < baselineThroughput * (1 - options.throughputTolerance())) {
+            failures.add(String.format("throughput %.1f/s is more than %.0f%% below the baseline %.1f/s",
+                throughput, 100 * options.throughputTolerance(), baselineThroughput));
+        }
+        Map<String, Object> operations = new LinkedHashMap<>((Map<String, Object>) run.get("operations"));
+        operations.put("all", all);
+        operations.forEach((name, summary) -> {
+            JsonNode baselineSummary = name.equals("all") ? baseline.get("all") : baseline.path("operations").get(name);
+            if (baselineSummary == null) {
+                return;
+            }
+            long requests = (long) ((Map<String, Object>) summary).get("requests");
+            String percentile = requests >= MIN_REQUESTS_FOR_P99 ? "p99" : "p90";
+            double value = (double) ((Map<String, Object>) summary).get(percentile + "Ms");
+            double baselineValue = baselineSummary.get(percentile + "Ms").asDouble();
+            if (value > baselineValue * (1 + options.p99Tolerance()) && value - baselineValue > P99_NOISE_FLOOR_MS) {
+                failures.add(String.format("%s %s %.2f ms is more than %.0f%% above the baseline %.2f ms",
+                    name, percentile, value, 100 * options.p99Tolerance(), baselineValue));
+            }
+        });
+        return failures;
+    }
+
+    private static Map<String, Object> summary(Histogram latency, Histogram serviceTime, long errors) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long requests = latency.getTotalCount();
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests == 0 ? 0.0 : (double) errors / requests);
+        summary.put("p50Ms", millis(latency.getValueAtPercentile(50)));
+        summary.put("p90Ms", millis(latency.getValueAtPercentile(90)));
+        summary.put("p99Ms", millis(latency.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(latency.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(latency.getMaxValue()));
+        summary.put("serviceTimeP99Ms", millis(serviceTime.getValueAtPercentile(99)));
+        return summary;
+    }
+
+    // Where the run happened; a baseline from a different machine profile only compares roughly
+    private static Map<String, Object> machine() {
+        Map<String, Object> machine = new LinkedHashMap<>();
+        machine.put("cpus", Runtime.getRuntime().availableProcessors());
+        machine.put("maxHeapMb", (int) (Runtime.getRuntime().maxMemory() / (1024 * 1024)));
+        machine.put("java", Runtime.version().feature());
+        return machine;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,149 @@
+package com.usps.portal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Seeds users and shipments through the public API and builds the requests of the traffic mix. Track requests
+ * follow an 80/20 split so the near cache and Redis see hot and cold numbers, the way a few live shipments get
+ * most lookups in production.
+ */
+public class Traffic {
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String PASSWORD = "load-test-password";
+    private static final String[][] DESTINATIONS = {
+        {"New York", "NY", "10001"}, {"Chicago", "IL", "60601"}, {"Houston", "TX", "77002"},
+        {"Phoenix", "AZ", "85004"}, {"Seattle", "WA", "98101"}, {"Columbus", "OH", "43215"},
+    };
+
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final List<SeedUser> users;
+
+    private record SeedUser(String email, String token, List<String> trackingNumbers) {
+    }
+
+    private Traffic(URI baseUri, ObjectMapper objectMapper, List<SeedUser> users) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.users = users;
+    }
+
+    public static Traffic seed(HttpClient client, URI baseUri, ObjectMapper objectMapper,
+                               int userCount, int shipmentsPerUser) {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<CompletableFuture<SeedUser>> seeded = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            String email = "load-" + run + "-" + i + "@example.com";
+            Map<String, String> registration = Map.of(
+                "firstName", "Load", "lastName", "User " + i, "email", email, "password", PASSWORD);
+            seeded.add(send(client, post(baseUri, "/api/auth/register", null, objectMapper, registration), 200, objectMapper)
+                .thenCompose(registered -> {
+                    String token = registered.get("token").asText();
+                    List<Map<String, String>> shipments = new ArrayList<>(shipmentsPerUser);
+                    for (int n = 0; n < shipmentsPerUser; n++) {
+                        shipments.add(shipment(n));
+                    }
+                    return send(client, post(baseUri, "/api/tracking/batch", token, objectMapper, shipments), 201, objectMapper)
+                        .thenApply(created -> {
+                            List<String> trackingNumbers = new ArrayList<>(shipmentsPerUser);
+                            created.get("results").forEach(result -> trackingNumbers.add(result.get("trackingNumber").asText()));
+                            return new SeedUser(email, token, List.copyOf(trackingNumbers));
+                        });
+                }));
+        }
+        return new Traffic(baseUri, objectMapper, seeded.stream().map(CompletableFuture::join).toList());
+    }
+
+    public HttpRequest request(Operation operation, SplittableRandom random) {
+        SeedUser user = users.get(random.nextInt(users.size()));
+        return switch (operation) {
+            case LOGIN -> post(baseUri, "/api/auth/login", null, objectMapper,
+                Map.of("email", user.email(), "password", PASSWORD));
+            case TRACK -> get("/api/tracking/" + trackingNumber(user, random), user.token());
+            case MY_SHIPMENTS -> get("/api/tracking/my-shipments?limit=20", user.token());
+            case CREATE -> post(baseUri, "/api/tracking/create", user.token(), objectMapper, shipment(random.nextInt(1000)));
+            case REPORT -> {
+                LocalDateTime end = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+                yield get("/api/reports/shipment-report?startDate=" + encode(end.minusDays(30))
+                    + "&endDate=" + encode(end), user.token());
+            }
+        };
+    }
+
+    private static String trackingNumber(SeedUser user, SplittableRandom random) {
+        List<String> numbers = user.trackingNumbers();
+        int hot = Math.max(1, numbers.size() / 5);
+        return random.nextInt(10) < 8 ? numbers.get(random.nextInt(hot)) : numbers.get(random.nextInt(numbers.size()));
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+    }
+
+    private static HttpRequest post(URI baseUri, String path, String token, ObjectMapper objectMapper, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        try {
+            return builder.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CompletableFuture<JsonNode> send(HttpClient client, HttpRequest request, int expectedStatus,
+                                                    ObjectMapper objectMapper) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            if (response.statusCode() != expectedStatus) {
+                throw new IllegalStateException("Seeding " + request.uri().getPath() + " returned " + response.statusCode()
+                    + ": " + new String(response.body(), StandardCharsets.UTF_8));
+            }
+            try {
+                return objectMapper.readTree(response.body());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static Map<String, String> shipment(int n) {
+        String[] destination = DESTINATIONS[n % DESTINATIONS.length];
+        return Map.of(
+            "recipientName", "Recipient " + n,
+            "recipientAddress", (100 + n) + " Main Street",
+            "recipientCity", destination[0],
+            "recipientState", destination[1],
+            "recipientZipCode", destination[2]);
+    }
+
+    private static String encode(LocalDateTime time) {
+        return URLEncoder.encode(time.toString(), StandardCharsets.UTF_8);
+    }
+}
@@ -10,7 +10,7 @@ echo "=========================================="
 echo ""
 
 echo "=== 1. Health Check ==="
-HEALTH=$(curl -s $BASE_URL/actuator/health)
+HEALTH=$(curl -s $BASE_URL/readyz)
 if echo "$HEALTH" | grep -q '"status":"UP"'; then
   echo "✅ Health check passed"
   echo "$HEALTH" | python3 -m json.tool 2>/dev/null || echo "$HEALTH"